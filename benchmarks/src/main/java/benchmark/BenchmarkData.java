@@ -0,0 +1,155 @@
+package benchmark;
+
+import entity.Application;
+import entity.Internship;
+import entity.Student;
+import entity.enums.ApplicationStatus;
+import entity.enums.InternshipLevel;
+import entity.enums.InternshipStatus;
+import util.FileManager;
+import util.SystemConstants;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+
+/**
+ * builds the synthetic internships, applications and students the benchmarks run against,
+ * a fixed seed keeps every fork on the same data
+ *
+ */
+
+
+
+final class BenchmarkData {
+    static final String[] MAJORS = {
+        "Computer Science", "Computer Engineering", "Data Science & AI",
+        "Information Engineering & Media", "Business Analytics"
+    };
+
+    private static final long SEED = 2002L;
+    private static final int APPLICATIONS_PER_STUDENT = SystemConstants.MAX_APPLICATIONS_PER_STUDENT;
+
+    private BenchmarkData() {
+    }
+
+
+
+    static List<Internship> internships(int count) {
+        Random random = new Random(SEED);
+        InternshipLevel[] levels = InternshipLevel.values();
+        InternshipStatus[] statuses = InternshipStatus.values();
+        LocalDate today = LocalDate.now();
+        List<Internship> internships = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            String repId = "rep" + (i / SystemConstants.MAX_INTERNSHIPS_PER_REP) + "@company.com";
+            LocalDate opening = today.minusDays(random.nextInt(60));
+            Internship internship = new Internship(
+                internshipId(i),
+                "Internship " + Integer.toString(random.nextInt(1_000_000), 36),
+                "Synthetic internship " + i,
+                levels[random.nextInt(levels.length)],
+                MAJORS[random.nextInt(MAJORS.length)],
+                opening,
+                today.plusDays(random.nextInt(120) - 20),
+                "Company " + (i / SystemConstants.MAX_INTERNSHIPS_PER_REP),
+                repId,
+                1 + random.nextInt(SystemConstants.MAX_SLOTS_PER_INTERNSHIP)
+            );
+
+            // roughly two thirds approved, the rest spread over the other statuses
+            InternshipStatus status = random.nextInt(3) < 2 ? InternshipStatus.Approved : statuses[random.nextInt(statuses.length)];
+            internship.setStatus(status);
+            internship.setVisible(random.nextInt(10) < 8);
+            internships.add(internship);
+        }
+        return internships;
+    }
+
+
+
+    static Map<String, Internship> internshipMap(int count) {
+        Map<String, Internship> map = new HashMap<>();
+        for (Internship internship : internships(count)) {
+            map.put(internship.getInternshipId(), internship);
+        }
+        return map;
+    }
+
+
+
+    static int studentCount(int applications) {
+        return Math.max(1, applications / APPLICATIONS_PER_STUDENT);
+    }
+
+
+
+    static Map<String, Application> applications(int count, int internshipCount) {
+        Random random = new Random(SEED);
+        ApplicationStatus[] statuses = ApplicationStatus.values();
+        LocalDate today = LocalDate.now();
+        Map<String, Application> applications = new HashMap<>();
+
+        for (int i = 0; i < count; i++) {
+            Application application = new Application(
+                String.format("APP%05d", i + 1),
+                studentId(i / APPLICATIONS_PER_STUDENT),
+                internshipId(random.nextInt(internshipCount)),
+                today.minusDays(random.nextInt(90))
+            );
+            application.setStatus(statuses[random.nextInt(statuses.length)]);
+            applications.put(application.getApplicationId(), application);
+        }
+        return applications;
+    }
+
+
+
+    static Student student(int index) {
+        int year = 1 + index % 4;
+        return new Student(studentId(index), "Student " + index, "password", year, MAJORS[index % MAJORS.length]);
+    }
+
+
+
+    static String studentId(int index) {
+        return String.format("U%07dX", index);
+    }
+
+
+
+    static String internshipId(int index) {
+        return String.format("INT%05d", index + 1);
+    }
+
+
+
+    /**
+     * points FileManager at a fresh temporary directory so registries start from the generated files only,
+     * nothing under the working directory is read or deleted. the directory is removed when the fork exits
+     */
+    static void useScratchDataDirectory() throws IOException {
+        Path scratch = Files.createTempDirectory("ipms-benchmark-");
+        FileManager.setDataDirectory(scratch);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> deleteRecursively(scratch)));
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException ignored) {
+        }
+    }
+}
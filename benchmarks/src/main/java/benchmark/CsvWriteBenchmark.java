@@ -0,0 +1,94 @@
+package benchmark;
+
+import entity.Internship;
+import org.openjdk.jmh.annotations.*;
+import util.CsvWriter;
+import util.DateUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * compares the String.format row formatting the internship save path used before
+ * with the CsvWriter it uses now, both write into a discarding writer
+ *
+ */
+
+
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvWriteBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    private List<Internship> internships;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        internships = BenchmarkData.internships(rows);
+    }
+
+    @Benchmark
+    public void stringFormat() throws IOException {
+        try (Writer writer = new BufferedWriter(Writer.nullWriter())) {
+            for (Internship internship : internships) {
+                writer.write(String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%d,%d,%s\n",
+                    internship.getInternshipId(),
+                    escapeCSV(internship.getTitle()),
+                    escapeCSV(internship.getDescription()),
+                    internship.getLevel(),
+                    internship.getPreferredMajor(),
+                    DateUtils.formatDate(internship.getOpeningDate()),
+                    DateUtils.formatDate(internship.getClosingDate()),
+                    internship.getStatus(),
+                    escapeCSV(internship.getCompanyName()),
+                    internship.getCompanyRepId(),
+                    internship.getTotalSlots(),
+                    internship.getFilledSlots(),
+                    internship.isVisible()
+                ));
+            }
+        }
+    }
+
+    @Benchmark
+    public void csvWriter() throws IOException {
+        CsvWriter writer = new CsvWriter(Writer.nullWriter());
+        for (Internship internship : internships) {
+            writer.field(internship.getInternshipId())
+                .escapedField(internship.getTitle())
+                .escapedField(internship.getDescription())
+                .field(internship.getLevel())
+                .field(internship.getPreferredMajor())
+                .field(internship.getOpeningDate())
+                .field(internship.getClosingDate())
+                .field(internship.getStatus())
+                .escapedField(internship.getCompanyName())
+                .field(internship.getCompanyRepId())
+                .field(internship.getTotalSlots())
+                .field(internship.getFilledSlots())
+                .field(internship.isVisible())
+                .endRow();
+        }
+        writer.flush();
+    }
+
+    private static String escapeCSV(String field) {
+        if (field == null) return "";
+
+        if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
+            return "\"" + field.replace("\"", "\"\"") + "\"";
+        }
+        return field;
+    }
+}
@@ -0,0 +1,66 @@
+package benchmark;
+
+import entity.Internship;
+import entity.enums.InternshipLevel;
+import entity.enums.InternshipStatus;
+import org.openjdk.jmh.annotations.*;
+import util.Filter;
+import util.Page;
+import util.SystemConstants;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * times Filter.apply with the default sort alone and with every criterion set,
+ * and the first page of the default sort
+ *
+ */
+
+
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private List<Internship> internships;
+    private Filter sortOnly;
+    private Filter allCriteria;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        internships = BenchmarkData.internships(rows);
+
+        sortOnly = new Filter();
+
+        allCriteria = new Filter();
+        allCriteria.setStatusFilter(InternshipStatus.Approved);
+        allCriteria.setMajorFilter(BenchmarkData.MAJORS[0]);
+        allCriteria.setLevelFilter(InternshipLevel.Intermediate);
+        allCriteria.setClosingDateFilter(java.time.LocalDate.now().plusDays(60));
+        allCriteria.setSortBy("closingDate");
+    }
+
+    @Benchmark
+    public List<Internship> sortOnly() {
+        return sortOnly.apply(internships);
+    }
+
+    @Benchmark
+    public List<Internship> allCriteria() {
+        return allCriteria.apply(internships);
+    }
+
+    @Benchmark
+    public Page<Internship> sortOnlyFirstPage() {
+        return sortOnly.apply(internships, 0, SystemConstants.RESULTS_PAGE_SIZE);
+    }
+}
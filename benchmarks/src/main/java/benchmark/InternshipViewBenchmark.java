@@ -0,0 +1,62 @@
+package benchmark;
+
+import controller.InternshipViewController;
+import controller.SessionController;
+import entity.Internship;
+import org.openjdk.jmh.annotations.*;
+import repository.InternshipRegistry;
+import util.FileManager;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * times InternshipViewController.getVisibleInternshipsForStudent for a year 3 student,
+ * each fork loads its own registry from a generated internships.csv
+ *
+ * the plain benchmark mostly hits the eligibility cache, afterInternshipChange touches one
+ * internship first so every call rebuilds the student's entry
+ *
+ */
+
+
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InternshipViewBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private InternshipViewController viewController;
+    private Internship touched;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkData.useScratchDataDirectory();
+        FileManager.saveInternships(BenchmarkData.internshipMap(rows));
+        InternshipRegistry.getInstance().initialize();
+
+        SessionController.getInstance().setCurrentUser(BenchmarkData.student(2));
+        viewController = new InternshipViewController();
+        touched = InternshipRegistry.getInstance().getInternshipById(BenchmarkData.internshipId(0));
+    }
+
+    @Benchmark
+    public List<Internship> getVisibleInternshipsForStudent() {
+        return viewController.getVisibleInternshipsForStudent();
+    }
+
+    @Benchmark
+    public List<Internship> afterInternshipChange() {
+        touched.toggleVisibility();
+        touched.toggleVisibility();
+        return viewController.getVisibleInternshipsForStudent();
+    }
+}
@@ -0,0 +1,48 @@
+package benchmark;
+
+import entity.Application;
+import org.openjdk.jmh.annotations.*;
+import util.FileManager;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * times loading and saving applications.csv through FileManager
+ *
+ */
+
+
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private Map<String, Application> applications;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkData.useScratchDataDirectory();
+        applications = BenchmarkData.applications(rows, Math.max(1, rows / 10));
+        FileManager.saveApplications(applications);
+    }
+
+    @Benchmark
+    public Map<String, Application> loadApplications() throws IOException {
+        return FileManager.loadApplications();
+    }
+
+    @Benchmark
+    public void saveApplications() throws IOException {
+        FileManager.saveApplications(applications);
+    }
+}
@@ -0,0 +1,56 @@
+package benchmark;
+
+import entity.Application;
+import org.openjdk.jmh.annotations.*;
+import repository.ApplicationRegistry;
+import util.FileManager;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * times ApplicationRegistry.getApplicationsByStudent, each fork loads its own registry
+ * from a generated applications.csv
+ *
+ */
+
+
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistryBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ApplicationRegistry registry;
+    private String[] studentIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkData.useScratchDataDirectory();
+        FileManager.saveApplications(BenchmarkData.applications(rows, Math.max(1, rows / 10)));
+
+        registry = ApplicationRegistry.getInstance();
+        registry.initialize();
+
+        studentIds = new String[BenchmarkData.studentCount(rows)];
+        for (int i = 0; i < studentIds.length; i++) {
+            studentIds[i] = BenchmarkData.studentId(i);
+        }
+    }
+
+    @Benchmark
+    public List<Application> getApplicationsByStudent() {
+        String studentId = studentIds[next];
+        next = next + 1 == studentIds.length ? 0 : next + 1;
+        return registry.getApplicationsByStudent(studentId);
+    }
+}
@@ -6,6 +6,8 @@ import entity.enums.InternshipStatus;
 import entity.enums.InternshipLevel;
 
 import util.Filter;
+import util.Page;
+import util.SystemConstants;
 
 import java.util.List;
 import java.util.Scanner;
@@ -205,30 +207,40 @@ import java.util.Scanner;
     private void handleWithdrawals() {
         System.out.println("\n=== Handle Withdrawal Requests ===");
 
-        List<WithdrawalRequest> pending = withdrawalReportController.getPendingWithdrawalRequests();
-        if (pending.isEmpty()) {
-            System.out.println("No pending withdrawal requests.");
-            return;
-        }
+        int offset = 0;
+        while (true) {
+            Page<WithdrawalRequest> page =
+                withdrawalReportController.getPendingWithdrawalRequests(offset, SystemConstants.RESULTS_PAGE_SIZE);
+            if (page.getTotal() == 0) {
+                System.out.println("No pending withdrawal requests.");
+                return;
+            }
+            if (offset == 0) {
+                System.out.println("Pending Withdrawal Requests:");
+            }
 
-        System.out.println("Pending Withdrawal Requests:");
+            List<WithdrawalRequest> pending = page.getItems();
+            for (int i = 0; i < pending.size(); i++) {
+                WithdrawalRequest request = pending.get(i);
+                Internship internship = internshipController.getInternship(request.getInternshipId());
+                User student = authController.getUser(request.getStudentId());
 
-        for (int i = 0; i < pending.size(); i++) {
-            WithdrawalRequest request = pending.get(i);
-            Internship internship = internshipController.getInternship(request.getInternshipId());
-            User student = authController.getUser(request.getStudentId());
+                System.out.println((page.getOffset() + i + 1) + ". Request ID: " + request.getRequestId());
+
+                if (student != null) {
+                    System.out.println("   Student: " + student.getName() + " (" + student.getUserId() + ")");
+                }
+                if (internship != null) {
+                    System.out.println("   Internship: " + internship.getTitle());
+                }
 
-            System.out.println((i + 1) + ". Request ID: " + request.getRequestId());
+                System.out.println("   After Placement: " + request.isAfterPlacement());
 
-            if (student != null) {
-                System.out.println("   Student: " + student.getName() + " (" + student.getUserId() + ")");
             }
-            if (internship != null) {
-                System.out.println("   Internship: " + internship.getTitle());
+            if (!showNextPage(page, "continue")) {
+                break;
             }
-
-            System.out.println("   After Placement: " + request.isAfterPlacement());
-
+            offset = page.getNextOffset();
         }
 
 
@@ -269,20 +281,20 @@ import java.util.Scanner;
 
         String choice = scanner.nextLine().trim();
 
-        List<Internship> results;
+        Filter reportFilter;
 
         switch (choice) {
             case "1":
-                results = internshipReportController.generateReport(filter);
+                reportFilter = filter;
                 break;
 
             case "2":
 
-                System.out.print("Status (Pending/Approved/Rejected/Filled): ");
+                System.out.print("Status (Pending/Approved/Rejected/Filled/Closed): ");
                 String statusStr = scanner.nextLine().trim();
                 try {
-                    InternshipStatus status = InternshipStatus.valueOf(statusStr);
-                    results = internshipReportController.generateReportByStatus(status);
+                    reportFilter = new Filter();
+                    reportFilter.setStatusFilter(InternshipStatus.valueOf(statusStr));
                 } catch (IllegalArgumentException e) {
                     System.out.println("Invalid status.");
                     return;
@@ -292,15 +304,16 @@ import java.util.Scanner;
             case "3":
                 System.out.print("Major: ");
                 String major = scanner.nextLine().trim();
-                results = internshipReportController.generateReportByMajor(major);
+                reportFilter = new Filter();
+                reportFilter.setMajorFilter(major);
                 break;
 
             case "4":
                 System.out.print("Level (Basic/Intermediate/Advanced): ");
                 String levelStr = scanner.nextLine().trim();
                 try {
-                    InternshipLevel level = InternshipLevel.valueOf(levelStr);
-                    results = internshipReportController.generateReportByLevel(level);
+                    reportFilter = new Filter();
+                    reportFilter.setLevelFilter(InternshipLevel.valueOf(levelStr));
                 } catch (IllegalArgumentException e) {
                     System.out.println("Invalid level.");
                     return;
@@ -310,7 +323,7 @@ import java.util.Scanner;
 
             case "5":
                 configureFilter();
-                results = internshipReportController.generateReport(filter);
+                reportFilter = filter;
                 break;
 
 
@@ -320,19 +333,37 @@ import java.util.Scanner;
 
         }
         System.out.println("\n=== Report Results ===");
-        if (results.isEmpty()) {
-            System.out.println("No internships found.");
-            return;
+        int offset = 0;
+        while (true) {
+            Page<Internship> page = internshipReportController.generateReport(reportFilter, offset, SystemConstants.RESULTS_PAGE_SIZE);
+            if (page.getTotal() == 0) {
+                System.out.println("No internships found.");
+                return;
+            }
+            for (Internship internship : page.getItems()) {
+                System.out.println("\nTitle: " + internship.getTitle());
+                System.out.println("Company: " + internship.getCompanyName());
+                System.out.println("Level: " + internship.getLevel());
+                System.out.println("Status: " + internship.getStatus());
+                System.out.println("Preferred Major: " + internship.getPreferredMajor());
+                System.out.println("Closing Date: " + internship.getClosingDate());
+                System.out.println("Slots: " + internship.getFilledSlots() + "/" + internship.getTotalSlots());
+            }
+            if (!showNextPage(page, "return")) {
+                return;
+            }
+            offset = page.getNextOffset();
         }
-        for (Internship internship : results) {
-            System.out.println("\nTitle: " + internship.getTitle());
-            System.out.println("Company: " + internship.getCompanyName());
-            System.out.println("Level: " + internship.getLevel());
-            System.out.println("Status: " + internship.getStatus());
-            System.out.println("Preferred Major: " + internship.getPreferredMajor());
-            System.out.println("Closing Date: " + internship.getClosingDate());
-            System.out.println("Slots: " + internship.getFilledSlots() + "/" + internship.getTotalSlots());
+    }
+
+
+    private boolean showNextPage(Page<?> page, String action) {
+        if (!page.hasNext()) {
+            return false;
         }
+        System.out.print("\nShowing " + (page.getOffset() + 1) + "-" + page.getNextOffset() + " of " + page.getTotal()
+            + ". Enter 'n' for the next page or press Enter to " + action + ": ");
+        return "n".equalsIgnoreCase(scanner.nextLine().trim());
     }
 
 
@@ -346,7 +377,7 @@ import java.util.Scanner;
         String choice = scanner.nextLine().trim();
         switch (choice) {
             case "1":
-                System.out.print("Status (Pending/Approved/Rejected/Filled or 'clear'): ");
+                System.out.print("Status (Pending/Approved/Rejected/Filled/Closed or 'clear'): ");
                 String statusStr = scanner.nextLine().trim();
                 if ("clear".equalsIgnoreCase(statusStr)) {
                     filter.setStatusFilter(null);
@@ -6,6 +6,8 @@ import entity.enums.InternshipStatus;
 import entity.enums.InternshipLevel;
 
 import util.Filter;
+import util.Page;
+import util.SystemConstants;
 
 import java.util.List;
 import java.util.Scanner;
@@ -111,15 +113,40 @@ import java.util.Scanner;
         System.out.println("\n=== Available Internships ===");
 
         List<Internship> eligible = internshipViewController.getVisibleInternshipsForStudent();
-        List<Internship> filtered = filter.apply(eligible);
+        int offset = 0;
 
-        if (filtered.isEmpty()) {
-            System.out.println("No internships available.");
-            return;
+        while (true) {
+            Page<Internship> page = filter.apply(eligible, offset, SystemConstants.RESULTS_PAGE_SIZE);
+            if (page.getTotal() == 0) {
+                System.out.println("No internships available.");
+                return;
+            }
+            printInternships(page);
+            if (!showNextPage(page)) {
+                return;
+            }
+            offset = page.getNextOffset();
         }
-        for (int i = 0; i < filtered.size(); i++) {
-            Internship internship = filtered.get(i);
-            System.out.println("\n" + (i + 1) + ". " + internship.getTitle());
+    }
+
+
+
+    private boolean showNextPage(Page<?> page) {
+        if (!page.hasNext()) {
+            return false;
+        }
+        System.out.print("\nShowing " + (page.getOffset() + 1) + "-" + page.getNextOffset() + " of " + page.getTotal()
+            + ". Enter 'n' for the next page or press Enter to return: ");
+        return "n".equalsIgnoreCase(scanner.nextLine().trim());
+    }
+
+
+
+    private void printInternships(Page<Internship> page) {
+        List<Internship> items = page.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            Internship internship = items.get(i);
+            System.out.println("\n" + (page.getOffset() + i + 1) + ". " + internship.getTitle());
             System.out.println("   Company: " + internship.getCompanyName());
             System.out.println("   Level: " + internship.getLevel());
             System.out.println("   Preferred Major: " + internship.getPreferredMajor());
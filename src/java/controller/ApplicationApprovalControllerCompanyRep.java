@@ -69,14 +69,12 @@ import java.util.List;
         List<Application> pending = new ArrayList<>();
 
 
-        for (Application application : applicationController.getAllApplications()) {
+        for (Application application : applicationController.getApplicationsByStatus(entity.enums.ApplicationStatus.Pending)) {
 
-            if (application.getStatus() == entity.enums.ApplicationStatus.Pending) {
-                Internship internship = internshipController.getInternship(application.getInternshipId());
+            Internship internship = internshipController.getInternship(application.getInternshipId());
 
-                if (internship != null && internship.getCompanyRepId().equals(companyRepId)) {
-                    pending.add(application);
-                }
+            if (internship != null && internship.getCompanyRepId().equals(companyRepId)) {
+                pending.add(application);
             }
         }
         return pending;
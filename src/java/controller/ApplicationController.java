@@ -124,7 +124,7 @@ import java.util.List;
             requireCompanyRepresentativeOwnership(internship);
         }
 
-        application.setStatus(ApplicationStatus.Successful);
+        applicationRegistry.updateStatus(application, ApplicationStatus.Successful);
         applicationRegistry.save();
     }
 
@@ -137,7 +137,7 @@ import java.util.List;
             requireCompanyRepresentativeOwnership(internship);
         }
 
-        application.setStatus(ApplicationStatus.Unsuccessful);
+        applicationRegistry.updateStatus(application, ApplicationStatus.Unsuccessful);
         applicationRegistry.save();
     }
 
@@ -163,11 +163,19 @@ import java.util.List;
             throw new IllegalStateException("Can only accept successful applications");
         }
 
-        if (student.hasAcceptedPlacement()) {
-            throw new IllegalStateException("You have already accepted a placement");
-        }
+        Internship internship = requireInternship(application.getInternshipId());
+
+        synchronized (student) {
+            if (student.hasAcceptedPlacement()) {
+                throw new IllegalStateException("You have already accepted a placement");
+            }
+
+            if (!internship.tryReserveSlot()) {
+                throw new IllegalStateException("No slots remaining for this internship");
+            }
 
-        student.setAcceptedInternshipId(application.getInternshipId());
+            student.setAcceptedInternshipId(application.getInternshipId());
+        }
 
         List<Application> otherApplications = applicationRegistry.getApplicationsByStudent(student.getUserId());
         for (Application other : new ArrayList<>(otherApplications)) {
@@ -176,8 +184,6 @@ import java.util.List;
             }
         }
 
-        Internship internship = requireInternship(application.getInternshipId());
-        internship.incrementFilledSlots();
         internshipRegistry.save();
         applicationRegistry.save();
     }
@@ -199,13 +205,7 @@ import java.util.List;
 
     public List<Application> getApplicationsByStatus(ApplicationStatus status) {
         ensureInitialized();
-        List<Application> result = new ArrayList<>();
-        for (Application application : applicationRegistry.getAllApplications()) {
-            if (application.getStatus() == status) {
-                result.add(application);
-            }
-        }
-        return result;
+        return applicationRegistry.getApplicationsByStatus(status);
     }
 
 
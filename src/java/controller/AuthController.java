@@ -7,11 +7,18 @@ import service.AuthService;
 import service.SessionService;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 
 import java.util.Collection;
 import java.util.Collections;
-
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import java.util.stream.Collectors;
 
@@ -21,6 +28,14 @@ import java.util.stream.Collectors;
  * 
  * It handles loads/saves users, logs in/out, password changes, company rep registration/approval
  * 
+ * loginSession/logoutSession hand out session tokens for concurrent users,
+ * logging out flushes any registry writes still queued in the PersistenceExecutor,
+ * the session is closed even when a write fails and the failure is thrown to the menu
+ * 
+ * the four registries are loaded on separate threads at startup, once they have all
+ * joined the cross-registry links that are not stored on disk are rebuilt
+ * and the InternshipExpiryScheduler closes anything that expired while the app was down
+ * 
  */
 
 
@@ -37,6 +52,7 @@ import java.util.stream.Collectors;
     private final InternshipRegistry internshipRegistry = InternshipRegistry.getInstance();
     private final ApplicationRegistry applicationRegistry = ApplicationRegistry.getInstance();
     private final WithdrawalRegistry withdrawalRegistry = WithdrawalRegistry.getInstance();
+    private final PersistenceExecutor persistenceExecutor = PersistenceExecutor.getInstance();
 
     private boolean initialized = false;
 
@@ -51,19 +67,99 @@ import java.util.stream.Collectors;
     }
 
 
+    private interface RegistryLoader {
+        void load() throws IOException;
+    }
+
+
+
     public synchronized void initialize() throws IOException {
         if (initialized) {
             return;
         }
-        userRegistry.initialize();
-        internshipRegistry.initialize();
-        applicationRegistry.initialize();
-        withdrawalRegistry.initialize();
+        long startTime = System.nanoTime();
+        ExecutorService loaders = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "registry-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            Map<String, Future<Long>> loads = new LinkedHashMap<>();
+            loads.put("users", loaders.submit(() -> timed(userRegistry::initialize)));
+            loads.put("internships", loaders.submit(() -> timed(internshipRegistry::initialize)));
+            loads.put("applications", loaders.submit(() -> timed(applicationRegistry::initialize)));
+            loads.put("withdrawals", loaders.submit(() -> timed(withdrawalRegistry::initialize)));
+
+            StringBuilder timings = new StringBuilder("Startup:");
+            for (Map.Entry<String, Future<Long>> load : loads.entrySet()) {
+                timings.append(' ').append(load.getKey()).append(' ').append(await(load.getValue())).append(" ms,");
+            }
+
+            long reconcileTime = timed(this::reconcileRegistries);
+            timings.append(" reconcile ").append(reconcileTime).append(" ms,");
+            long expiryTime = timed(InternshipExpiryScheduler.getInstance()::start);
+            timings.append(" expiry ").append(expiryTime).append(" ms,");
+            timings.append(" total ").append(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime)).append(" ms");
+            System.out.println(timings);
+        } finally {
+            loaders.shutdown();
+        }
         initialized = true;
     }
 
 
 
+    private static long timed(RegistryLoader loader) throws IOException {
+        long startTime = System.nanoTime();
+        loader.load();
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+
+
+    private static long await(Future<Long> load) throws IOException {
+        try {
+            return load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading registries");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Unable to load registries", cause);
+        }
+    }
+
+
+
+    /**
+     * applied internships and created internships are only kept in memory on the users,
+     * rebuild them from the loaded applications and internships
+     */
+    private void reconcileRegistries() {
+        for (Application application : applicationRegistry.getAllApplications()) {
+            User user = userRegistry.getUserById(application.getStudentId());
+            if (user instanceof Student) {
+                ((Student) user).addAppliedInternship(application.getInternshipId());
+            }
+        }
+
+        for (Internship internship : internshipRegistry.getAllInternships()) {
+            User user = userRegistry.getUserById(internship.getCompanyRepId());
+            if (user instanceof CompanyRepresentative) {
+                ((CompanyRepresentative) user).addCreatedInternship(internship.getInternshipId());
+            }
+        }
+    }
+
+
+
 
     private void ensureInitialized() {
         if (!initialized) {
@@ -82,6 +178,29 @@ import java.util.stream.Collectors;
 
     @Override
     public User login(String userId, String password) {
+        User user = authenticate(userId, password);
+        sessionService.setCurrentUser(user);
+        return user;
+    }
+
+
+
+    public String loginSession(String userId, String password) {
+        return sessionService.openSession(authenticate(userId, password));
+    }
+
+
+
+    public void logoutSession(String token) {
+        sessionService.runInSession(token, () -> {
+            logout();
+            return null;
+        });
+    }
+
+
+
+    private User authenticate(String userId, String password) {
         ensureInitialized();
         User user = userRegistry.authenticateUser(userId, password);
         if (user == null) {
@@ -90,7 +209,6 @@ import java.util.stream.Collectors;
         if (user instanceof CompanyRepresentative && !((CompanyRepresentative) user).isApproved()) {
             throw new IllegalStateException("Your account is pending approval from Career Center Staff");
         }
-        sessionService.setCurrentUser(user);
         return user;
     }
 
@@ -98,10 +216,19 @@ import java.util.stream.Collectors;
 
 
 
+    /**
+     * saves pending changes and ends the session. a failed save is reported and left to the
+     * persistence executor's retry, the session ends either way
+     */
     @Override
     public void logout() {
-        persistAll();
-        sessionService.clearSession();
+        try {
+            persistenceExecutor.flush();
+        } catch (IllegalStateException e) {
+            System.out.println("Error: " + e.getMessage() + ". Your changes are kept and will be saved again shortly.");
+        } finally {
+            sessionService.clearSession();
+        }
     }
 
 
@@ -113,6 +240,7 @@ import java.util.stream.Collectors;
             throw new IllegalStateException("No user logged in");
         }
         currentUser.changePassword(oldPassword, newPassword);
+        userRegistry.markModified(currentUser);
         userRegistry.save();
     }
 
@@ -163,6 +291,7 @@ import java.util.stream.Collectors;
         }
 
         ((CompanyRepresentative) user).setApproved(true);
+        userRegistry.markModified(user);
         userRegistry.save();
     }
 
@@ -200,30 +329,6 @@ import java.util.stream.Collectors;
         userRegistry.addUser(user);
         userRegistry.save();
     }
-    
-
-    private void persistAll() {
-        try {
-            userRegistry.save();
-        } catch (RuntimeException e) {
-            System.err.println("Error saving users: " + e.getMessage());
-        }
-        try {
-            internshipRegistry.save();
-        } catch (RuntimeException e) {
-            System.err.println("Error saving internships: " + e.getMessage());
-        }
-        try {
-            applicationRegistry.save();
-        } catch (RuntimeException e) {
-            System.err.println("Error saving applications: " + e.getMessage());
-        }
-        try {
-            withdrawalRegistry.save();
-        } catch (RuntimeException e) {
-            System.err.println("Error saving withdrawals: " + e.getMessage());
-        }
-    }
 }
 
 
@@ -0,0 +1,81 @@
+package controller;
+
+import entity.Internship;
+import entity.Student;
+import repository.InternshipRegistry;
+import util.MajorDictionary;
+import util.SystemConstants;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+
+/**
+ * Caches the internships open to each kind of student for the browse screen.
+ *
+ * eligibility only depends on the student's major and whether their year is limited to basic
+ * internships, so students sharing both see the same list. an entry is reused while the
+ * internship registry's modification count and the current day are the ones it was built under
+ *
+ */
+
+
+
+final class EligibilityCache {
+    private static final EligibilityCache INSTANCE = new EligibilityCache();
+
+    private final InternshipRegistry internshipRegistry = InternshipRegistry.getInstance();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    private EligibilityCache() {
+    }
+
+    static EligibilityCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * returns the cached list for the student's major and year band, building it with the given
+     * function when the entry is missing or stale. the list is shared, callers must not modify it
+     */
+    List<Internship> get(Student student, Function<LocalDate, List<Internship>> build) {
+        long key = ((long) MajorDictionary.codeOf(student) << 2) | yearBand(student.getYearOfStudy());
+        long modificationCount = internshipRegistry.getModificationCount();
+        LocalDate today = LocalDate.now();
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.modificationCount == modificationCount && entry.day.equals(today)) {
+            return entry.internships;
+        }
+
+        List<Internship> internships = Collections.unmodifiableList(build.apply(today));
+        entries.put(key, new Entry(modificationCount, today, internships));
+        return internships;
+    }
+
+    /**
+     * 0 for years that cannot apply, 1 for basic internships only, 2 for every level
+     */
+    private static int yearBand(int year) {
+        if (year < 1 || year > 4) {
+            return 0;
+        }
+        return year <= SystemConstants.BASIC_LEVEL_MAX_YEAR ? 1 : 2;
+    }
+
+    private static final class Entry {
+        private final long modificationCount;
+        private final LocalDate day;
+        private final List<Internship> internships;
+
+        private Entry(long modificationCount, LocalDate day, List<Internship> internships) {
+            this.modificationCount = modificationCount;
+            this.day = day;
+            this.internships = internships;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import entity.enums.InternshipStatus;
 
 import repository.*;
 import service.*;
+import util.MajorDictionary;
 import validator.InternshipValidator;
 
 import java.io.IOException;
@@ -93,7 +94,7 @@ import java.util.List;
             title,
             description,
             level,
-            preferredMajor,
+            MajorDictionary.intern(preferredMajor),
             openingDate,
             closingDate,
             representative.getCompanyName(),
@@ -134,8 +135,9 @@ import java.util.List;
         }
 
         if (internship.getStatus() == InternshipStatus.Approved
-            || internship.getStatus() == InternshipStatus.Filled) {
-            throw new IllegalStateException("Cannot edit internship that is already approved or filled");
+            || internship.getStatus() == InternshipStatus.Filled
+            || internship.getStatus() == InternshipStatus.Closed) {
+            throw new IllegalStateException("Cannot edit internship that is already approved, filled or closed");
         }
 
         if (!internshipValidator.isDateRangeValid(openingDate, closingDate)) {
@@ -149,7 +151,7 @@ import java.util.List;
         internship.setTitle(title);
         internship.setDescription(description);
         internship.setLevel(level);
-        internship.setPreferredMajor(preferredMajor);
+        internship.setPreferredMajor(MajorDictionary.intern(preferredMajor));
         internship.setOpeningDate(openingDate);
         internship.setClosingDate(closingDate);
         internship.setTotalSlots(totalSlots);
@@ -176,7 +178,8 @@ import java.util.List;
 
         List<Application> existingApps = applicationRegistry.getApplicationsByInternship(internshipId);
         if (!existingApps.isEmpty()
-            && internship.getStatus() == InternshipStatus.Approved) {
+            && (internship.getStatus() == InternshipStatus.Approved
+                || internship.getStatus() == InternshipStatus.Closed)) {
             throw new IllegalStateException("Cannot delete internship with existing applications");
         }
 
@@ -268,6 +271,16 @@ import java.util.List;
         return internshipRegistry.getVisibleInternships();
     }
 
+    public List<Internship> getOpenInternships(LocalDate today) {
+        ensureInitialized();
+        return internshipRegistry.getOpenInternships(today);
+    }
+
+    public List<Internship> findInternships(FilterSettings settings) {
+        ensureInitialized();
+        return internshipRegistry.findInternships(settings);
+    }
+
     public void save() {
         internshipRegistry.save();
     }
@@ -1,50 +1,105 @@
 package controller;
 
+import entity.FilterSettings;
 import entity.Internship;
 import entity.enums.InternshipLevel;
 import entity.enums.InternshipStatus;
 import util.Filter;
+import service.InternshipReportingService;
+import util.Page;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Provides reporting capabilities over internship data.
  * 
  * reporting utilities over internships, apply filters for status, major, or level
+ * 
+ * the paged variants only sort the internships up to the end of the requested page
+ * 
+ * every report is answered from the registry indexes instead of filtering every internship,
+ * Filter based reports are turned into FilterSettings and only sorted here
  */
 
 
 
 
- public class InternshipReportController {
+ public class InternshipReportController implements InternshipReportingService {
 
     private final InternshipController internshipController = InternshipController.getInstance();
 
     public List<Internship> generateReport(Filter filter) {
-        List<Internship> all = new ArrayList<>(internshipController.getAllInternships());
         if (filter == null) {
             filter = new Filter();
         }
-        return filter.apply(all);
+        return sortOnly(filter).apply(internshipController.findInternships(toFilterSettings(filter)));
+    }
+
+    public Page<Internship> generateReport(Filter filter, int offset, int limit) {
+        if (filter == null) {
+            filter = new Filter();
+        }
+        return sortOnly(filter).apply(internshipController.findInternships(toFilterSettings(filter)), offset, limit);
+    }
+
+    /**
+     * the filter's criteria as FilterSettings, so the registry indexes pick the matches
+     */
+    private static FilterSettings toFilterSettings(Filter filter) {
+        FilterSettings settings = new FilterSettings();
+        if (filter.getStatusFilter() != null) {
+            settings.setStatusFilters(Collections.singletonList(filter.getStatusFilter().name()));
+        }
+        if (filter.getMajorFilter() != null && !filter.getMajorFilter().isEmpty()) {
+            settings.setMajorFilters(Collections.singletonList(filter.getMajorFilter()));
+        }
+        if (filter.getLevelFilter() != null) {
+            settings.setLevelFilters(Collections.singletonList(filter.getLevelFilter().name()));
+        }
+        settings.setClosingDateBefore(filter.getClosingDateFilter());
+        return settings;
+    }
+
+    /**
+     * a filter with no criteria that orders results like the given one
+     */
+    private static Filter sortOnly(Filter filter) {
+        Filter sorting = new Filter();
+        sorting.setSortBy(filter.getSortBy());
+        return sorting;
+    }
+
+    @Override
+    public List<Internship> generateReport(FilterSettings filterSettings) {
+        if (filterSettings == null) {
+            filterSettings = new FilterSettings();
+        }
+        List<Internship> matches = internshipController.findInternships(filterSettings);
+        if (filterSettings.isAlphabeticalOrder()) {
+            return new Filter().apply(matches);
+        }
+        return matches;
     }
 
+    @Override
     public List<Internship> generateReportByStatus(InternshipStatus status) {
-        Filter filter = new Filter();
-        filter.setStatusFilter(status);
-        return generateReport(filter);
+        FilterSettings settings = new FilterSettings();
+        settings.setStatusFilters(Collections.singletonList(status.name()));
+        return generateReport(settings);
     }
 
+    @Override
     public List<Internship> generateReportByMajor(String major) {
-        Filter filter = new Filter();
-        filter.setMajorFilter(major);
-        return generateReport(filter);
+        FilterSettings settings = new FilterSettings();
+        settings.setMajorFilters(Collections.singletonList(major));
+        return generateReport(settings);
     }
 
     public List<Internship> generateReportByLevel(InternshipLevel level) {
-        Filter filter = new Filter();
-        filter.setLevelFilter(level);
-        return generateReport(filter);
+        FilterSettings settings = new FilterSettings();
+        settings.setLevelFilters(Collections.singletonList(level.name()));
+        return generateReport(settings);
     }
 }
 
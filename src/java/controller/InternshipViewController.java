@@ -13,6 +13,9 @@ import java.util.List;
  * 
  * returns details, all internships, or student-eligible visible opportunities
  * 
+ * open internships come from the registry's closing-date index rather than a date check per internship,
+ * the eligible list is cached per major and year band and returned read-only
+ * 
  * 
  */
 
@@ -24,6 +27,7 @@ import java.util.List;
 
     private final InternshipController internshipController = InternshipController.getInstance();
     private final SessionController sessionController = SessionController.getInstance();
+    private final EligibilityCache eligibilityCache = EligibilityCache.getInstance();
 
 
 
@@ -41,17 +45,15 @@ import java.util.List;
         }
         Student student = (Student) currentUser;
 
-        List<Internship> visible = internshipController.getVisibleInternships();
-        List<Internship> eligible = new ArrayList<>();
-
-        for (Internship internship : visible) {
-            if (Validator.isEligibleForInternship(student, internship) && internship.isOpenForApplication()) {
-                eligible.add(internship);
+        return eligibilityCache.get(student, today -> {
+            List<Internship> eligible = new ArrayList<>();
+            for (Internship internship : internshipController.getOpenInternships(today)) {
+                if (Validator.isEligibleForInternship(student, internship)) {
+                    eligible.add(internship);
+                }
             }
-        }
-
-
-        return eligible;
+            return eligible;
+        });
     }
 
 
@@ -3,16 +3,34 @@ package controller;
 import entity.User;
 import service.SessionService;
 
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 /**
  * stores and clears the currently authenticated user for the CLI session.
+ * 
+ * also keeps any number of concurrent sessions keyed by token, a request runs
+ * inside its session through runInSession so getCurrentUser resolves per thread
+ *
+ * a token session expires after -Dipms.sessionIdleMinutes (30 by default) without a request,
+ * expired sessions are dropped when they are next used and by a sweep that openSession runs
+ * at most once a minute
  */
 
 
 
  public class SessionController implements SessionService {
+    private static final long IDLE_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(Long.getLong("ipms.sessionIdleMinutes", 30));
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
     private static final SessionController INSTANCE = new SessionController();
 
-    private User currentUser;
+    private volatile User currentUser;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> boundToken = new ThreadLocal<>();
+    private volatile long nextSweep = System.nanoTime() + SWEEP_INTERVAL_NANOS;
 
 
     private SessionController() {
@@ -22,26 +40,138 @@ import service.SessionService;
     public static SessionController getInstance() { return INSTANCE; }
 
     @Override
-    public User getCurrentUser() { return currentUser; }
+    public User getCurrentUser() {
+        String token = boundToken.get();
+        if (token != null) {
+            Session session = sessions.get(token);
+            return session == null ? null : session.user;
+        }
+        return currentUser;
+    }
 
     @Override
     public void setCurrentUser(User currentUser) {
+        String token = boundToken.get();
+        if (token != null) {
+            if (currentUser == null) {
+                sessions.remove(token);
+            } else {
+                sessions.put(token, new Session(currentUser));
+            }
+            return;
+        }
         this.currentUser = currentUser;
     }
 
     @Override
     public boolean isLoggedIn() {
-        return currentUser != null;
+        return getCurrentUser() != null;
     }
 
     @Override
     public void clearSession() {
+        String token = boundToken.get();
+        if (token != null) {
+            sessions.remove(token);
+            return;
+        }
         currentUser = null;
     }
 
     public void logout() {
         clearSession();
     }
-}
 
 
+
+    @Override
+    public String openSession(User user) {
+        if (user == null) {
+            throw new IllegalArgumentException("Cannot open a session without a user");
+        }
+        sweepExpiredSessions();
+        String token = UUID.randomUUID().toString();
+        sessions.put(token, new Session(user));
+        return token;
+    }
+
+    @Override
+    public void closeSession(String token) {
+        if (token != null) {
+            sessions.remove(token);
+        }
+    }
+
+    @Override
+    public <T> T runInSession(String token, Supplier<T> action) {
+        Session session = activeSession(token);
+        if (session == null) {
+            throw new IllegalStateException("Session has expired or does not exist");
+        }
+        session.lastUsed = System.nanoTime();
+
+        String previous = boundToken.get();
+        boundToken.set(token);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                boundToken.remove();
+            } else {
+                boundToken.set(previous);
+            }
+        }
+    }
+
+    public boolean isSessionActive(String token) {
+        return activeSession(token) != null;
+    }
+
+    public int getActiveSessionCount() {
+        nextSweep = System.nanoTime();
+        sweepExpiredSessions();
+        return sessions.size();
+    }
+
+
+
+    /**
+     * the token's session, null when there is none or it has expired, which also drops it
+     */
+    private Session activeSession(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session != null && session.isExpired(System.nanoTime())) {
+            sessions.remove(token, session);
+            return null;
+        }
+        return session;
+    }
+
+    private void sweepExpiredSessions() {
+        long now = System.nanoTime();
+        if (now - nextSweep < 0) {
+            return;
+        }
+        nextSweep = now + SWEEP_INTERVAL_NANOS;
+        sessions.values().removeIf(session -> session.isExpired(now));
+    }
+
+
+
+    private static final class Session {
+        private final User user;
+        private volatile long lastUsed = System.nanoTime();
+
+        private Session(User user) {
+            this.user = user;
+        }
+
+        private boolean isExpired(long now) {
+            return now - lastUsed > IDLE_TIMEOUT_NANOS;
+        }
+    }
+}
+
@@ -7,6 +7,7 @@ import entity.enums.WithdrawalStatus;
 import repository.*;
 import service.SessionService;
 import service.StudentWithdrawalService;
+import util.Page;
 import validator.WithdrawalValidator;
 
 
@@ -86,7 +87,7 @@ import java.util.List;
             throw new IllegalStateException("You can only withdraw your own applications");
         }
 
-        boolean existsPending = withdrawalRegistry.getAllRequests().stream()
+        boolean existsPending = withdrawalRegistry.getRequestsByStudent(student.getUserId()).stream()
             .anyMatch(req -> req.getApplicationId().equals(applicationId)
                 && req.getStatus() == WithdrawalStatus.Pending);
 
@@ -117,7 +118,7 @@ import java.util.List;
         ensureInitialized();
         ensureStaff();
         WithdrawalRequest request = requireRequest(requestId);
-        request.setStatus(WithdrawalStatus.Approved);
+        withdrawalRegistry.updateStatus(request, WithdrawalStatus.Approved);
 
         Application application = applicationRegistry.getApplicationById(request.getApplicationId());
         if (application != null) {
@@ -152,7 +153,7 @@ import java.util.List;
         ensureInitialized();
         ensureStaff();
         WithdrawalRequest request = requireRequest(requestId);
-        request.setStatus(WithdrawalStatus.Rejected);
+        withdrawalRegistry.updateStatus(request, WithdrawalStatus.Rejected);
         withdrawalRegistry.save();
     }
 
@@ -170,6 +171,12 @@ import java.util.List;
         return withdrawalRegistry.getPendingRequests();
     }
 
+    public Page<WithdrawalRequest> getPendingWithdrawalRequests(int offset, int limit) {
+        ensureInitialized();
+        ensureStaff();
+        return withdrawalRegistry.getPendingRequests(offset, limit);
+    }
+
     public Collection<WithdrawalRequest> getAllWithdrawalRequests() {
         ensureInitialized();
         ensureStaff();
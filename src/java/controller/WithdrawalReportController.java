@@ -1,6 +1,7 @@
 package controller;
 
 import entity.WithdrawalRequest;
+import util.Page;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -31,6 +32,12 @@ public class WithdrawalReportController {
 
 
 
+    public Page<WithdrawalRequest> getPendingWithdrawalRequests(int offset, int limit) {
+        return withdrawalController.getPendingWithdrawalRequests(offset, limit);
+    }
+
+
+
     public List<WithdrawalRequest> getWithdrawalsByStudent(String studentId) {
         return withdrawalController.getRequestsByStudent(studentId);
     }
@@ -4,6 +4,7 @@ import entity.enums.InternshipLevel;
 import entity.enums.InternshipStatus;
 
 import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Internship {
     private final String internshipId;
@@ -13,12 +14,14 @@ public class Internship {
     private String description;
     private InternshipLevel level;
     private String preferredMajor;
+    private volatile int preferredMajorCode = -1;
     private LocalDate openingDate;
     private LocalDate closingDate;
-    private InternshipStatus status;
-    private int totalSlots;
-    private int filledSlots;
-    private boolean visible;
+    private volatile InternshipStatus status;
+    private volatile int totalSlots;
+    private final AtomicInteger filledSlots = new AtomicInteger();
+    private volatile boolean visible;
+    private InternshipChangeListener changeListener;
 
     public Internship(String internshipId,
                       String title,
@@ -40,7 +43,6 @@ public class Internship {
         this.companyName = companyName;
         this.companyRepId = companyRepId;
         this.totalSlots = totalSlots;
-        this.filledSlots = 0;
         this.visible = true;
         this.status = InternshipStatus.Pending;
     }
@@ -55,6 +57,7 @@ public class Internship {
 
     public void setTitle(String title) {
         this.title = title;
+        notifyChanged();
     }
 
     public String getDescription() {
@@ -63,6 +66,7 @@ public class Internship {
 
     public void setDescription(String description) {
         this.description = description;
+        notifyChanged();
     }
 
     public InternshipLevel getLevel() {
@@ -71,6 +75,7 @@ public class Internship {
 
     public void setLevel(InternshipLevel level) {
         this.level = level;
+        notifyChanged();
     }
 
     public String getPreferredMajor() {
@@ -79,6 +84,19 @@ public class Internship {
 
     public void setPreferredMajor(String preferredMajor) {
         this.preferredMajor = preferredMajor;
+        this.preferredMajorCode = -1;
+        notifyChanged();
+    }
+
+    /**
+     * the preferred major's code in util.MajorDictionary, -1 until it has been looked up
+     */
+    public int getPreferredMajorCode() {
+        return preferredMajorCode;
+    }
+
+    public void setPreferredMajorCode(int preferredMajorCode) {
+        this.preferredMajorCode = preferredMajorCode;
     }
 
     public LocalDate getOpeningDate() {
@@ -87,6 +105,7 @@ public class Internship {
 
     public void setOpeningDate(LocalDate openingDate) {
         this.openingDate = openingDate;
+        notifyChanged();
     }
 
     public LocalDate getClosingDate() {
@@ -95,6 +114,7 @@ public class Internship {
 
     public void setClosingDate(LocalDate closingDate) {
         this.closingDate = closingDate;
+        notifyChanged();
     }
 
     public InternshipStatus getStatus() {
@@ -103,6 +123,7 @@ public class Internship {
 
     public void setStatus(InternshipStatus status) {
         this.status = status;
+        notifyChanged();
     }
 
     public String getCompanyName() {
@@ -119,14 +140,15 @@ public class Internship {
 
     public void setTotalSlots(int totalSlots) {
         this.totalSlots = totalSlots;
+        notifyChanged();
     }
 
     public int getFilledSlots() {
-        return filledSlots;
+        return filledSlots.get();
     }
 
     public int getAvailableSlots() {
-        return Math.max(0, totalSlots - filledSlots);
+        return Math.max(0, totalSlots - filledSlots.get());
     }
 
     public boolean isVisible() {
@@ -135,28 +157,71 @@ public class Internship {
 
     public void setVisible(boolean visible) {
         this.visible = visible;
+        notifyChanged();
     }
 
     public void toggleVisibility() {
         this.visible = !this.visible;
+        notifyChanged();
     }
 
     public void incrementFilledSlots() {
-        if (filledSlots < totalSlots) {
-            filledSlots++;
-        }
-        if (filledSlots >= totalSlots) {
-            status = InternshipStatus.Filled;
-        }
+        tryReserveSlot();
     }
 
     public void decrementFilledSlots() {
-        if (filledSlots > 0) {
-            filledSlots--;
+        int filled;
+        do {
+            filled = filledSlots.get();
+        } while (filled > 0 && !filledSlots.compareAndSet(filled, filled - 1));
+        if (filled > 0) {
+            refreshFilledStatus();
+            notifyChanged();
+        }
+    }
+
+    /**
+     * claims one slot with a compare-and-set, never going past totalSlots.
+     * returns false when the internship is already full, a full internship is still moved to
+     * Filled. listeners are told about a reservation that went through or a status change
+     */
+    public boolean tryReserveSlot() {
+        int filled = filledSlots.get();
+        while (filled < totalSlots) {
+            if (filledSlots.compareAndSet(filled, filled + 1)) {
+                refreshFilledStatus();
+                notifyChanged();
+                return true;
+            }
+            filled = filledSlots.get();
         }
-        if (status == InternshipStatus.Filled && filledSlots < totalSlots) {
+        if (refreshFilledStatus()) {
+            notifyChanged();
+        }
+        return false;
+    }
+
+    /**
+     * returns whether the status changed
+     */
+    private synchronized boolean refreshFilledStatus() {
+        InternshipStatus previous = status;
+        if (filledSlots.get() >= totalSlots) {
+            status = InternshipStatus.Filled;
+        } else if (status == InternshipStatus.Filled) {
             status = InternshipStatus.Approved;
         }
+        return status != previous;
+    }
+
+    public void setChangeListener(InternshipChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    private void notifyChanged() {
+        if (changeListener != null) {
+            changeListener.internshipChanged(this);
+        }
     }
 
     public boolean isOpenForApplication() {
@@ -165,7 +230,7 @@ public class Internship {
             && visible
             && !today.isBefore(openingDate)
             && !today.isAfter(closingDate)
-            && filledSlots < totalSlots;
+            && filledSlots.get() < totalSlots;
     }
 
     public boolean isAfterClosingDate() {
@@ -0,0 +1,14 @@
+package entity;
+
+/**
+ * Callback for state changes on an internship.
+ * 
+ * lets the internship registry keep its status, visibility and owner indexes in step
+ * and know when it has unsaved changes
+ */
+
+
+public interface InternshipChangeListener {
+
+    void internshipChanged(Internship internship);
+}
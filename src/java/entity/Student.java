@@ -6,6 +6,7 @@ import java.util.List;
 public class Student extends User {
     private int yearOfStudy;
     private String major;
+    private volatile int majorCode = -1;
     private List<String> appliedInternshipIds;
     private String acceptedInternshipId;
 
@@ -31,6 +32,18 @@ public class Student extends User {
 
     public void setMajor(String major) {
         this.major = major;
+        this.majorCode = -1;
+    }
+
+    /**
+     * the major's code in util.MajorDictionary, -1 until it has been looked up
+     */
+    public int getMajorCode() {
+        return majorCode;
+    }
+
+    public void setMajorCode(int majorCode) {
+        this.majorCode = majorCode;
     }
 
     public List<String> getAppliedInternshipIds() {
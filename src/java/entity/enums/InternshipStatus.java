@@ -4,6 +4,7 @@ public enum InternshipStatus {
     Pending,
     Approved,
     Rejected,
-    Filled
+    Filled,
+    Closed
 }
 
@@ -1,11 +1,17 @@
 package repository;
 
 import entity.Application;
+import entity.enums.ApplicationStatus;
 import util.FileManager;
+import util.IdCodec;
+import util.LongHashMap;
+import util.LongSet;
 
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 
 /**
@@ -13,17 +19,50 @@ import java.util.*;
  * 
  * handles application submissions, lookups, and persistence
  * 
+ * mutations are appended to an application log, the log is folded into
+ * applications.csv once it passes the compaction threshold. a mutation queues its
+ * record under the write lock, which keeps records in mutation order, and forces
+ * it to disk after releasing the lock so index readers never wait on the disk.
+ * the mutator only returns once its record is durable
+ * 
+ * keeps student, internship and status indexes in step with every mutation so lookups cost
+ * time proportional to the result size. the indexes hold IdCodec keys, a student's or
+ * internship's key maps to the sorted keys of its applications, which are resolved through
+ * the store without rendering ids. results come back in application id order
+ * 
+ * safe for concurrent use: point reads are lock-free, index reads take the read lock,
+ * mutations take the write lock and snapshots are written outside of it
+ * 
+ * mutators bump a modification counter, save() does nothing while the counter
+ * matches the last snapshot
+ * 
+ * with -Dipms.columnarApplications=true applications are kept in a ColumnarApplicationMap,
+ * the Application objects handed out are then views onto its rows and are compared with equals,
+ * setting a view's status leaves the row alone, updateStatus puts the application back instead.
+ * otherwise they are kept in an IdMap, like the other registries
  * 
  */
 
 
 
  public class ApplicationRegistry {
+    private static final boolean COLUMNAR_STORE = Boolean.getBoolean("ipms.columnarApplications");
     private static final ApplicationRegistry INSTANCE = new ApplicationRegistry();
+    private static final int LOG_COMPACTION_THRESHOLD = 1000;
 
-    private final Map<String, Application> applications = new HashMap<>();
-    private boolean initialized = false;
-    private int nextApplicationId = 1;
+    private final IdKeyedMap<Application> applications =
+        COLUMNAR_STORE ? new ColumnarApplicationMap() : new IdMap<>(IdCodec.APPLICATION);
+    private final LongHashMap<LongSet> keysByStudent = new LongHashMap<>();
+    private final LongHashMap<LongSet> keysByInternship = new LongHashMap<>();
+    private final Map<ApplicationStatus, LongSet> keysByStatus = new EnumMap<>(ApplicationStatus.class);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object saveLock = new Object();
+    private final AtomicLong nextApplicationId = new AtomicLong(1);
+    private volatile boolean initialized = false;
+    private volatile boolean journalingEnabled = true;
+    private int journalRecords = 0;
+    private final AtomicLong modificationCount = new AtomicLong();
+    private volatile long savedModificationCount = 0;
 
     private ApplicationRegistry() {
     }
@@ -36,10 +75,20 @@ import java.util.*;
         if (initialized) {
             return;
         }
-        applications.clear();
-        applications.putAll(FileManager.loadApplications());
-        updateNextApplicationId();
-        initialized = true;
+        lock.writeLock().lock();
+        try {
+            FileManager.loadApplications(applications);
+            journalRecords = FileManager.replayApplicationLog(applications);
+            long[] applicationKeys = applications.sortedKeys();
+            rebuildIndexes(applicationKeys);
+            updateNextApplicationId(applicationKeys);
+            initialized = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (journalRecords >= LOG_COMPACTION_THRESHOLD) {
+            compact();
+        }
     }
 
     private void ensureInitialized() {
@@ -52,33 +101,187 @@ import java.util.*;
         }
     }
 
-    private void updateNextApplicationId() {
-        nextApplicationId = 1;
-        for (String key : applications.keySet()) {
-            if (key.startsWith("APP")) {
-                try {
-                    int value = Integer.parseInt(key.substring(3));
-                    if (value >= nextApplicationId) {
-                        nextApplicationId = value + 1;
-                    }
-                } catch (NumberFormatException ignored) {
-                }
+    /**
+     * indexes the applications in key order so every index insert is an append
+     */
+    private void rebuildIndexes(long[] applicationKeys) {
+        keysByStudent.clear();
+        keysByInternship.clear();
+        keysByStatus.clear();
+        for (long applicationKey : applicationKeys) {
+            index(applicationKey, applications.getByKey(applicationKey));
+        }
+    }
+
+    private void index(long applicationKey, Application application) {
+        addToIndex(keysByStudent, IdCodec.STUDENT.key(application.getStudentId()), applicationKey);
+        addToIndex(keysByInternship, IdCodec.INTERNSHIP.key(application.getInternshipId()), applicationKey);
+        keysByStatus.computeIfAbsent(application.getStatus(), k -> new LongSet()).add(applicationKey);
+    }
+
+    private void unindex(long applicationKey, Application application) {
+        removeFromIndex(keysByStudent, IdCodec.STUDENT.findKey(application.getStudentId()), applicationKey);
+        removeFromIndex(keysByInternship, IdCodec.INTERNSHIP.findKey(application.getInternshipId()), applicationKey);
+        LongSet keys = keysByStatus.get(application.getStatus());
+        if (keys != null) {
+            keys.remove(applicationKey);
+            if (keys.isEmpty()) {
+                keysByStatus.remove(application.getStatus());
             }
         }
     }
 
-    public synchronized void save() {
+    private static void addToIndex(LongHashMap<LongSet> index, long key, long applicationKey) {
+        LongSet keys = index.get(key);
+        if (keys == null) {
+            keys = new LongSet();
+            index.put(key, keys);
+        }
+        keys.add(applicationKey);
+    }
+
+    private static void removeFromIndex(LongHashMap<LongSet> index, long key, long applicationKey) {
+        LongSet keys = index.get(key);
+        if (keys != null) {
+            keys.remove(applicationKey);
+            if (keys.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private List<Application> lookup(LongSet keys) {
+        if (keys == null) {
+            return new ArrayList<>();
+        }
+        List<Application> list = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            list.add(applications.getByKey(keys.get(i)));
+        }
+        return list;
+    }
+
+    private void updateNextApplicationId(long[] applicationKeys) {
+        long next = 1;
+        for (long applicationKey : applicationKeys) {
+            long value = IdCodec.APPLICATION.number(applicationKey);
+            if (value >= next) {
+                next = value + 1;
+            }
+        }
+        nextApplicationId.set(next);
+    }
+
+    public boolean isDirty() {
+        return modificationCount.get() != savedModificationCount;
+    }
+
+    public void save() {
+        ensureInitialized();
+        if (!isDirty()) {
+            return;
+        }
+        if (journalingEnabled && journalRecordCount() < LOG_COMPACTION_THRESHOLD) {
+            return;
+        }
+        PersistenceExecutor.getInstance().markDirty("applications", this::compact);
+    }
+
+    /**
+     * writes a fresh applications.csv and drops the log records it covers.
+     *
+     * the log is rotated under the write lock so appends made while the snapshot
+     * is being written land in a new log instead of being lost
+     */
+    public void compact() {
         ensureInitialized();
+        synchronized (saveLock) {
+            Map<String, Application> snapshot;
+            long snapshotCount;
+            lock.writeLock().lock();
+            try {
+                if (!isDirty() && journalRecords == 0) {
+                    return;
+                }
+                snapshotCount = modificationCount.get();
+                snapshot = applications.copy();
+                FileManager.rotateApplicationLog();
+                journalRecords = 0;
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to save applications", e);
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            try {
+                FileManager.saveApplications(snapshot);
+                FileManager.clearRotatedApplicationLog();
+                savedModificationCount = snapshotCount;
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to save applications", e);
+            }
+        }
+    }
+
+    public boolean isJournalingEnabled() {
+        return journalingEnabled;
+    }
+
+    public void setJournalingEnabled(boolean journalingEnabled) {
+        synchronized (saveLock) {
+            if (this.journalingEnabled != journalingEnabled) {
+                compact();
+                this.journalingEnabled = journalingEnabled;
+            }
+        }
+    }
+
+    private int journalRecordCount() {
+        lock.readLock().lock();
         try {
-            FileManager.saveApplications(applications);
+            return journalRecords;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * queues the record, called under the write lock. returns the record's log sequence
+     * number or 0 when journaling is off
+     */
+    private long journal(Application application) {
+        if (!journalingEnabled) {
+            return 0;
+        }
+        journalRecords++;
+        return FileManager.queueApplicationLog(application);
+    }
+
+    private long journalRemoval(String applicationId) {
+        if (!journalingEnabled) {
+            return 0;
+        }
+        journalRecords++;
+        return FileManager.queueApplicationRemovalLog(applicationId);
+    }
+
+    /**
+     * forces queued records up to the sequence number to disk, called after the write lock is released
+     */
+    private void syncJournal(long sequence) {
+        if (sequence == 0) {
+            return;
+        }
+        try {
+            FileManager.syncApplicationLog(sequence);
         } catch (IOException e) {
-            throw new RuntimeException("Unable to save applications", e);
+            throw new RuntimeException("Unable to append to application log", e);
         }
     }
 
     public String nextId() {
         ensureInitialized();
-        return "APP" + String.format("%05d", nextApplicationId++);
+        return IdCodec.APPLICATION.render(nextApplicationId.getAndIncrement());
     }
 
     public Application newApplication(String studentId, String internshipId) {
@@ -87,12 +290,66 @@ import java.util.*;
 
     public void addApplication(Application application) {
         ensureInitialized();
-        applications.put(application.getApplicationId(), application);
+        long logSequence;
+        lock.writeLock().lock();
+        try {
+            long applicationKey = IdCodec.APPLICATION.key(application.getApplicationId());
+            Application previous = applications.put(application.getApplicationId(), application);
+            if (previous != null) {
+                unindex(applicationKey, previous);
+            }
+            index(applicationKey, application);
+            modificationCount.incrementAndGet();
+            logSequence = journal(application);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        syncJournal(logSequence);
+    }
+
+    /**
+     * sets the status and, when an application with the same id is stored, puts this one in its
+     * place and journals it. an application that is no longer stored only has its own status changed
+     */
+    public void updateStatus(Application application, ApplicationStatus status) {
+        ensureInitialized();
+        long logSequence;
+        lock.writeLock().lock();
+        try {
+            long applicationKey = IdCodec.APPLICATION.findKey(application.getApplicationId());
+            Application stored = applications.getByKey(applicationKey);
+            if (stored == null) {
+                application.setStatus(status);
+                return;
+            }
+            unindex(applicationKey, stored);
+            application.setStatus(status);
+            applications.put(application.getApplicationId(), application);
+            index(applicationKey, application);
+            modificationCount.incrementAndGet();
+            logSequence = journal(application);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        syncJournal(logSequence);
     }
 
     public void removeApplication(String applicationId) {
         ensureInitialized();
-        applications.remove(applicationId);
+        long logSequence = 0;
+        lock.writeLock().lock();
+        try {
+            long applicationKey = IdCodec.APPLICATION.findKey(applicationId);
+            Application removed = applications.remove(applicationId);
+            if (removed != null) {
+                unindex(applicationKey, removed);
+                modificationCount.incrementAndGet();
+                logSequence = journalRemoval(applicationId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        syncJournal(logSequence);
     }
 
     public Application getApplicationById(String applicationId) {
@@ -107,24 +364,32 @@ import java.util.*;
 
     public List<Application> getApplicationsByStudent(String studentId) {
         ensureInitialized();
-        List<Application> list = new ArrayList<>();
-        for (Application application : applications.values()) {
-            if (application.getStudentId().equals(studentId)) {
-                list.add(application);
-            }
+        lock.readLock().lock();
+        try {
+            return lookup(keysByStudent.get(IdCodec.STUDENT.findKey(studentId)));
+        } finally {
+            lock.readLock().unlock();
         }
-        return list;
     }
 
     public List<Application> getApplicationsByInternship(String internshipId) {
         ensureInitialized();
-        List<Application> list = new ArrayList<>();
-        for (Application application : applications.values()) {
-            if (application.getInternshipId().equals(internshipId)) {
-                list.add(application);
-            }
+        lock.readLock().lock();
+        try {
+            return lookup(keysByInternship.get(IdCodec.INTERNSHIP.findKey(internshipId)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Application> getApplicationsByStatus(ApplicationStatus status) {
+        ensureInitialized();
+        lock.readLock().lock();
+        try {
+            return lookup(keysByStatus.get(status));
+        } finally {
+            lock.readLock().unlock();
         }
-        return list;
     }
 }
 
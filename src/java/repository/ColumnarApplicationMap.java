@@ -0,0 +1,500 @@
+package repository;
+
+import entity.Application;
+import entity.enums.ApplicationStatus;
+import util.IdCodec;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Keeps applications in parallel primitive arrays instead of one object per application.
+ *
+ * each application is a row: the numeric part of its application, student and internship ids,
+ * a status ordinal byte and an epoch-day int. get and iteration hand out small Application views,
+ * applications whose ids do not follow the generated formats are kept as they are in an overflow
+ * map, as are application numbers far beyond the row count so the number to row table stays dense
+ *
+ * putting an application that only differs in status from its row updates the status in place,
+ * anything else appends a new row and retires the old one. once retired rows outnumber live ones
+ * the columns are compacted into fresh arrays
+ *
+ * put and remove hand back detached copies of what they replaced. mutations must be serialized by
+ * the caller, ApplicationRegistry does that with its write lock.
+ * reads and iteration may run alongside a mutation without locking: a row's columns are written
+ * before its number to row entry is published with a release store, readers load the entry with
+ * an acquire load, and grown or compacted columns are published through one volatile field
+ *
+ * a view copies its row's ids and date when it is made and renders the id strings once, only the
+ * status is read from the row, so views stay valid after their row is retired or compacted away.
+ * setting a view's status never writes the row, it detaches the view, the store only changes
+ * through put
+ *
+ */
+
+
+
+final class ColumnarApplicationMap extends AbstractMap<String, Application> implements IdKeyedMap<Application> {
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+    private static final ApplicationStatus[] STATUSES = ApplicationStatus.values();
+    private static final int MIN_NUMBER_LIMIT = 1 << 20;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_DEAD_ROWS_TO_COMPACT = 1024;
+    private static final VarHandle ROW_ENTRY = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private volatile Columns columns = new Columns(INITIAL_CAPACITY, INITIAL_CAPACITY);
+    private volatile int liveCount = 0;
+    private final Map<String, Application> overflow = new ConcurrentHashMap<>();
+
+    private Set<Entry<String, Application>> entrySet;
+    private Collection<Application> values;
+
+
+
+    @Override
+    public int size() {
+        return liveCount + overflow.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Application get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        Columns current = columns;
+        int row = current.rowOf(IdCodec.APPLICATION.encode((String) key));
+        if (row >= 0) {
+            return new View(current, row);
+        }
+        return overflow.get(key);
+    }
+
+    @Override
+    public Application getByKey(long key) {
+        Columns current = columns;
+        int row = current.rowOf(IdCodec.APPLICATION.valueOf(key));
+        if (row >= 0) {
+            return new View(current, row);
+        }
+        return overflow.isEmpty() || key == IdCodec.INVALID ? null : overflow.get(IdCodec.renderKey(key));
+    }
+
+    @Override
+    public long[] sortedKeys() {
+        Columns current = columns;
+        int rows = current.rowCount;
+        long[] keys = new long[rows - current.deadRows + overflow.size()];
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            if (current.live[row]) {
+                keys[count++] = IdCodec.APPLICATION.keyOf(current.numbers[row]);
+            }
+        }
+        for (String applicationId : overflow.keySet()) {
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2 + 1);
+            }
+            keys[count++] = IdCodec.APPLICATION.key(applicationId);
+        }
+        keys = count == keys.length ? keys : Arrays.copyOf(keys, count);
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    @Override
+    public ColumnarApplicationMap copy() {
+        ColumnarApplicationMap copy = new ColumnarApplicationMap();
+        copy.columns = compacted(columns);
+        copy.liveCount = liveCount;
+        copy.overflow.putAll(overflow);
+        return copy;
+    }
+
+    @Override
+    public Application put(String applicationId, Application application) {
+        long number = IdCodec.APPLICATION.encode(applicationId);
+        long student = IdCodec.STUDENT.encode(application.getStudentId());
+        long internship = IdCodec.INTERNSHIP.encode(application.getInternshipId());
+        Columns current = columns;
+        if (!applicationId.equals(application.getApplicationId()) || !fitsInt(student) || !fitsInt(internship)
+            || number < 0 || number > Math.max(MIN_NUMBER_LIMIT, 4L * current.rowCount)) {
+            Application previous = remove(applicationId);
+            Application replaced = overflow.put(applicationId, application);
+            return previous != null ? previous : replaced;
+        }
+
+        LocalDate date = application.getApplicationDate();
+        int day = date == null ? NULL_DATE : (int) date.toEpochDay();
+        byte status = (byte) application.getStatus().ordinal();
+
+        int existing = current.rowOf(number);
+        if (existing >= 0 && current.students[existing] == student && current.internships[existing] == internship
+            && current.days[existing] == day) {
+            Application previous = copyOf(current, existing);
+            current.statuses[existing] = status;
+            return previous;
+        }
+        Application previous = existing >= 0 ? copyOf(current, existing) : overflow.remove(applicationId);
+
+        current = ensureCapacity(current.rowCount + 1, (int) number + 1);
+        int row = current.rowCount;
+        current.numbers[row] = (int) number;
+        current.students[row] = (int) student;
+        current.internships[row] = (int) internship;
+        current.statuses[row] = status;
+        current.days[row] = day;
+        current.live[row] = true;
+        current.rowCount = row + 1;
+        ROW_ENTRY.setRelease(current.rowByNumber, (int) number, row + 1);
+
+        if (existing >= 0) {
+            retire(current, existing);
+        } else {
+            liveCount++;
+        }
+        return previous;
+    }
+
+    @Override
+    public Application remove(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        long number = IdCodec.APPLICATION.encode((String) key);
+        Columns current = columns;
+        int row = current.rowOf(number);
+        if (row < 0) {
+            return overflow.remove(key);
+        }
+        Application removed = copyOf(current, row);
+        ROW_ENTRY.setRelease(current.rowByNumber, (int) number, 0);
+        retire(current, row);
+        liveCount--;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        columns = new Columns(INITIAL_CAPACITY, INITIAL_CAPACITY);
+        liveCount = 0;
+        overflow.clear();
+    }
+
+    @Override
+    public Collection<Application> values() {
+        if (values == null) {
+            values = new AbstractCollection<Application>() {
+                @Override
+                public Iterator<Application> iterator() {
+                    return new ApplicationIterator();
+                }
+
+                @Override
+                public int size() {
+                    return ColumnarApplicationMap.this.size();
+                }
+            };
+        }
+        return values;
+    }
+
+    @Override
+    public Set<Entry<String, Application>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<String, Application>>() {
+                @Override
+                public Iterator<Entry<String, Application>> iterator() {
+                    Iterator<Application> applications = new ApplicationIterator();
+                    return new Iterator<Entry<String, Application>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return applications.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Application> next() {
+                            Application application = applications.next();
+                            return new SimpleImmutableEntry<>(application.getApplicationId(), application);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return ColumnarApplicationMap.this.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+
+
+
+
+    /**
+     * a detached copy of the row, what put and remove hand back as the previous application
+     */
+    private static Application copyOf(Columns columns, int row) {
+        int day = columns.days[row];
+        Application copy = new Application(
+            IdCodec.APPLICATION.render(columns.numbers[row]),
+            IdCodec.STUDENT.render(columns.students[row]),
+            IdCodec.INTERNSHIP.render(columns.internships[row]),
+            day == NULL_DATE ? null : LocalDate.ofEpochDay(day));
+        copy.setStatus(STATUSES[columns.statuses[row]]);
+        return copy;
+    }
+
+    private static boolean fitsInt(long value) {
+        return value >= 0 && value <= Integer.MAX_VALUE - 1;
+    }
+
+    /**
+     * marks a row as no longer live and compacts the columns once retired rows outnumber live ones
+     */
+    private void retire(Columns current, int row) {
+        current.live[row] = false;
+        current.deadRows++;
+        if (current.deadRows >= MIN_DEAD_ROWS_TO_COMPACT && current.deadRows > current.rowCount - current.deadRows) {
+            compact(current);
+        }
+    }
+
+    private void compact(Columns current) {
+        columns = compacted(current);
+    }
+
+    /**
+     * fresh columns holding only the live rows, in row order
+     */
+    private static Columns compacted(Columns current) {
+        int liveRows = current.rowCount - current.deadRows;
+        Columns compacted = new Columns(Math.max(INITIAL_CAPACITY, liveRows * 2), current.rowByNumber.length);
+        int row = 0;
+        for (int old = 0; old < current.rowCount; old++) {
+            if (current.live[old]) {
+                compacted.copyRow(current, old, row);
+                compacted.rowByNumber[current.numbers[old]] = row + 1;
+                row++;
+            }
+        }
+        compacted.rowCount = row;
+        return compacted;
+    }
+
+    private Columns ensureCapacity(int rows, int numberLimit) {
+        Columns current = columns;
+        if (rows <= current.numbers.length && numberLimit <= current.rowByNumber.length) {
+            return current;
+        }
+        Columns grown = new Columns(grownLength(current.numbers.length, rows), grownLength(current.rowByNumber.length, numberLimit));
+        System.arraycopy(current.rowByNumber, 0, grown.rowByNumber, 0, current.rowByNumber.length);
+        System.arraycopy(current.numbers, 0, grown.numbers, 0, current.rowCount);
+        System.arraycopy(current.students, 0, grown.students, 0, current.rowCount);
+        System.arraycopy(current.internships, 0, grown.internships, 0, current.rowCount);
+        System.arraycopy(current.statuses, 0, grown.statuses, 0, current.rowCount);
+        System.arraycopy(current.days, 0, grown.days, 0, current.rowCount);
+        System.arraycopy(current.live, 0, grown.live, 0, current.rowCount);
+        grown.deadRows = current.deadRows;
+        grown.rowCount = current.rowCount;
+        columns = grown;
+        return grown;
+    }
+
+
+
+    private static int grownLength(int length, int needed) {
+        return needed <= length ? length : Math.max(needed, length * 2);
+    }
+
+
+
+    /**
+     * one generation of the columns, replaced as a whole when it grows or is compacted
+     */
+    private static final class Columns {
+        private final int[] rowByNumber;
+        private final int[] numbers;
+        private final int[] students;
+        private final int[] internships;
+        private final byte[] statuses;
+        private final int[] days;
+        private final boolean[] live;
+        private volatile int rowCount = 0;
+        private int deadRows = 0;
+
+        private Columns(int capacity, int numberLimit) {
+            rowByNumber = new int[numberLimit];
+            numbers = new int[capacity];
+            students = new int[capacity];
+            internships = new int[capacity];
+            statuses = new byte[capacity];
+            days = new int[capacity];
+            live = new boolean[capacity];
+        }
+
+        private int rowOf(long number) {
+            if (number < 0 || number >= rowByNumber.length) {
+                return -1;
+            }
+            return (int) ROW_ENTRY.getAcquire(rowByNumber, (int) number) - 1;
+        }
+
+        private void copyRow(Columns from, int fromRow, int row) {
+            numbers[row] = from.numbers[fromRow];
+            students[row] = from.students[fromRow];
+            internships[row] = from.internships[fromRow];
+            statuses[row] = from.statuses[fromRow];
+            days[row] = from.days[fromRow];
+            live[row] = true;
+        }
+    }
+
+
+
+    private final class ApplicationIterator implements Iterator<Application> {
+        private final Columns rows = columns;
+        private final int limit = rows.rowCount;
+        private final Iterator<Application> overflowApplications = overflow.values().iterator();
+        private int nextRow = nextLiveRow(0);
+
+        @Override
+        public boolean hasNext() {
+            return nextRow < limit || overflowApplications.hasNext();
+        }
+
+        @Override
+        public Application next() {
+            if (nextRow < limit) {
+                View view = new View(rows, nextRow);
+                nextRow = nextLiveRow(nextRow + 1);
+                return view;
+            }
+            return overflowApplications.next();
+        }
+
+        private int nextLiveRow(int row) {
+            while (row < limit && !rows.live[row]) {
+                row++;
+            }
+            return row;
+        }
+    }
+
+
+
+    /**
+     * an application read from one row, two views of the same application are equal.
+     * the status is looked up in the current columns until the application is gone, then the last
+     * status seen is kept. setStatus only changes this view and stops it following the row
+     */
+    private final class View extends Application {
+        private final int number;
+        private final int student;
+        private final int internship;
+        private final int day;
+        private ApplicationStatus status;
+        private boolean detached = false;
+        private String applicationId;
+        private String studentId;
+        private String internshipId;
+
+        private View(Columns columns, int row) {
+            super(null, null, null, null);
+            this.number = columns.numbers[row];
+            this.student = columns.students[row];
+            this.internship = columns.internships[row];
+            this.day = columns.days[row];
+            this.status = STATUSES[columns.statuses[row]];
+        }
+
+        @Override
+        public String getApplicationId() {
+            if (applicationId == null) {
+                applicationId = IdCodec.APPLICATION.render(number);
+            }
+            return applicationId;
+        }
+
+        @Override
+        public String getStudentId() {
+            if (studentId == null) {
+                studentId = IdCodec.STUDENT.render(student);
+            }
+            return studentId;
+        }
+
+        @Override
+        public String getInternshipId() {
+            if (internshipId == null) {
+                internshipId = IdCodec.INTERNSHIP.render(internship);
+            }
+            return internshipId;
+        }
+
+        @Override
+        public ApplicationStatus getStatus() {
+            if (detached) {
+                return status;
+            }
+            Columns current = columns;
+            int row = currentRow(current);
+            if (row >= 0) {
+                status = STATUSES[current.statuses[row]];
+            }
+            return status;
+        }
+
+        @Override
+        public void setStatus(ApplicationStatus status) {
+            this.status = status;
+            detached = true;
+        }
+
+        @Override
+        public LocalDate getApplicationDate() {
+            return day == NULL_DATE ? null : LocalDate.ofEpochDay(day);
+        }
+
+        /**
+         * the live row holding this application in the given columns, -1 once it was removed or replaced
+         */
+        private int currentRow(Columns current) {
+            int row = current.rowOf(number);
+            if (row < 0 || current.students[row] != student || current.internships[row] != internship
+                || current.days[row] != day) {
+                return -1;
+            }
+            return row;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof View)) {
+                return false;
+            }
+            View other = (View) o;
+            return other.owner() == owner() && other.number == number && other.student == student
+                && other.internship == internship && other.day == day;
+        }
+
+        @Override
+        public int hashCode() {
+            return number;
+        }
+
+        private ColumnarApplicationMap owner() {
+            return ColumnarApplicationMap.this;
+        }
+    }
+}
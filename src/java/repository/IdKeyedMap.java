@@ -0,0 +1,26 @@
+package repository;
+
+import java.util.Map;
+
+/**
+ * Registry storage that can also be read by IdCodec key.
+ *
+ * registries index the keys of their ids and resolve them here, ids are only turned back
+ * into strings when they are shown or written
+ */
+
+
+interface IdKeyedMap<V> extends Map<String, V> {
+
+    V getByKey(long key);
+
+    /**
+     * the keys of every entry in ascending order
+     */
+    long[] sortedKeys();
+
+    /**
+     * a separate map with the same entries, copied array by array for snapshots
+     */
+    IdKeyedMap<V> copy();
+}
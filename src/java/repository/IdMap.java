@@ -0,0 +1,179 @@
+package repository;
+
+import util.IdCodec;
+import util.LongHashMap;
+
+import java.util.*;
+
+
+/**
+ * Registry storage keyed by the numeric form of the registry's ids.
+ *
+ * every id is turned into its IdCodec key and kept in a LongHashMap, so values are not boxed
+ * into entry nodes and a scan walks two flat arrays. gets go through findKey and never assign
+ * keys to ids that are not stored
+ *
+ * safe for concurrent use like the ConcurrentHashMap it replaces: writers are serialized on the
+ * map, gets and size never lock. iteration walks the LongHashMap's current table in place,
+ * weakly consistent like a ConcurrentHashMap iterator
+ *
+ */
+
+
+
+final class IdMap<V> extends AbstractMap<String, V> implements IdKeyedMap<V> {
+    private final IdCodec codec;
+    private final LongHashMap<V> values;
+
+    private Set<Entry<String, V>> entrySet;
+    private Collection<V> valueView;
+
+    IdMap(IdCodec codec) {
+        this(codec, new LongHashMap<>());
+    }
+
+    private IdMap(IdCodec codec, LongHashMap<V> values) {
+        this.codec = codec;
+        this.values = values;
+    }
+
+
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof String ? values.get(codec.findKey((String) key)) : null;
+    }
+
+    @Override
+    public V getByKey(long key) {
+        return values.get(key);
+    }
+
+    @Override
+    public synchronized V put(String key, V value) {
+        return values.put(codec.key(key), value);
+    }
+
+    @Override
+    public synchronized V remove(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        long id = codec.findKey((String) key);
+        return id == IdCodec.INVALID ? null : values.remove(id);
+    }
+
+    @Override
+    public synchronized void clear() {
+        values.clear();
+    }
+
+    @Override
+    public synchronized IdMap<V> copy() {
+        return new IdMap<>(codec, values.copy());
+    }
+
+    @Override
+    public long[] sortedKeys() {
+        long[] keys = new long[values.size()];
+        int count = 0;
+        for (LongHashMap.Cursor<V> cursor = values.cursor(); cursor.next(); ) {
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2 + 1);
+            }
+            keys[count++] = cursor.key();
+        }
+        keys = count == keys.length ? keys : Arrays.copyOf(keys, count);
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    @Override
+    public Collection<V> values() {
+        if (valueView == null) {
+            valueView = new AbstractCollection<V>() {
+                @Override
+                public Iterator<V> iterator() {
+                    return new Scan<V>() {
+                        @Override
+                        V current(LongHashMap.Cursor<V> cursor) {
+                            return cursor.value();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return IdMap.this.size();
+                }
+            };
+        }
+        return valueView;
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<String, V>>() {
+                @Override
+                public Iterator<Entry<String, V>> iterator() {
+                    return new Scan<Entry<String, V>>() {
+                        @Override
+                        Entry<String, V> current(LongHashMap.Cursor<V> cursor) {
+                            return new SimpleImmutableEntry<>(IdCodec.renderKey(cursor.key()), cursor.value());
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return IdMap.this.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+
+
+
+
+    /**
+     * walks the table through a cursor
+     */
+    private abstract class Scan<T> implements Iterator<T> {
+        private final LongHashMap.Cursor<V> cursor = values.cursor();
+        private boolean ready = false;
+        private boolean done = false;
+
+        @Override
+        public boolean hasNext() {
+            if (!ready && !done) {
+                ready = cursor.next();
+                done = !ready;
+            }
+            return ready;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ready = false;
+            return current(cursor);
+        }
+
+        abstract T current(LongHashMap.Cursor<V> cursor);
+    }
+}
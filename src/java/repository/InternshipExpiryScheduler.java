@@ -0,0 +1,75 @@
+package repository;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Closes approved internships once their closing date has passed.
+ *
+ * runs once on startup and again just after every local midnight, each run closes all
+ * expired internships in one batch and queues a single internship save
+ *
+ */
+
+
+
+public class InternshipExpiryScheduler {
+    private static final InternshipExpiryScheduler INSTANCE = new InternshipExpiryScheduler();
+
+    private final InternshipRegistry internshipRegistry = InternshipRegistry.getInstance();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "internship-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private boolean started = false;
+
+    private InternshipExpiryScheduler() {
+    }
+
+    public static InternshipExpiryScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * closes what has already expired on the calling thread, then schedules the daily runs
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        closeExpired();
+        scheduleNextRun();
+        started = true;
+    }
+
+    public int closeExpired() {
+        int closed = internshipRegistry.closeExpiredInternships(LocalDate.now());
+        if (closed > 0) {
+            internshipRegistry.save();
+        }
+        return closed;
+    }
+
+    private void scheduleNextRun() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextMidnight = now.toLocalDate().plusDays(1).atStartOfDay();
+        long delay = Duration.between(now, nextMidnight).toMillis();
+        scheduler.schedule(this::runScheduled, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void runScheduled() {
+        try {
+            closeExpired();
+        } catch (RuntimeException e) {
+            System.err.println("Error closing expired internships: " + e.getMessage());
+        } finally {
+            scheduleNextRun();
+        }
+    }
+}
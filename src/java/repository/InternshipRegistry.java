@@ -1,11 +1,20 @@
 package repository;
 
+import entity.FilterSettings;
 import entity.Internship;
+import entity.InternshipChangeListener;
+import entity.enums.InternshipLevel;
 import entity.enums.InternshipStatus;
 import util.FileManager;
+import util.IdCodec;
+import util.LongHashMap;
+import util.MajorDictionary;
 
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 
 /**
@@ -13,6 +22,21 @@ import java.util.*;
  * 
  * handles internship submissions, lookups, and persistence
  * 
+ * every internship gets a dense slot number, status, level, major code, company rep and visibility
+ * bitmaps over the slots are the only indexes, internships report their own state changes back
+ * through an InternshipChangeListener. internships and company reps are keyed by their IdCodec
+ * keys, slots are handed out in id order when the indexes are rebuilt
+ * 
+ * the bitmaps and a closing-date ordered map of slot bitmaps answer FilterSettings queries without a full scan,
+ * the closing-date map also backs the closing before and open today range queries, closing before
+ * today is what the InternshipExpiryScheduler closes
+ * 
+ * safe for concurrent use: point reads are lock-free, index reads take the read lock,
+ * mutations take the write lock and snapshots are written outside of it
+ * 
+ * mutators and internship change notifications bump a modification counter,
+ * save() does nothing while the counter matches the last written snapshot
+ * 
  * 
  */
 
@@ -22,9 +46,23 @@ import java.util.*;
  public class InternshipRegistry {
     private static final InternshipRegistry INSTANCE = new InternshipRegistry();
 
-    private final Map<String, Internship> internships = new HashMap<>();
-    private boolean initialized = false;
-    private int nextInternshipId = 1;
+    private final IdMap<Internship> internships = new IdMap<>(IdCodec.INTERNSHIP);
+    private final LongHashMap<IndexedState> indexedStates = new LongHashMap<>();
+    private final Map<InternshipStatus, BitSet> slotsByStatus = new EnumMap<>(InternshipStatus.class);
+    private final Map<InternshipLevel, BitSet> slotsByLevel = new EnumMap<>(InternshipLevel.class);
+    private final Map<Integer, BitSet> slotsByMajor = new HashMap<>();
+    private final LongHashMap<BitSet> slotsByCompanyRep = new LongHashMap<>();
+    private final NavigableMap<LocalDate, BitSet> slotsByClosingDate = new TreeMap<>();
+    private final BitSet occupiedSlots = new BitSet();
+    private final BitSet visibleSlots = new BitSet();
+    private Internship[] internshipsBySlot = new Internship[64];
+    private final InternshipChangeListener changeListener = this::reindex;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object saveLock = new Object();
+    private final AtomicLong nextInternshipId = new AtomicLong(1);
+    private final AtomicLong modificationCount = new AtomicLong();
+    private volatile long savedModificationCount = 0;
+    private volatile boolean initialized = false;
 
     private InternshipRegistry() {
     }
@@ -37,10 +75,17 @@ import java.util.*;
         if (initialized) {
             return;
         }
-        internships.clear();
-        internships.putAll(FileManager.loadInternships());
-        updateNextInternshipId();
-        initialized = true;
+        lock.writeLock().lock();
+        try {
+            internships.clear();
+            internships.putAll(FileManager.loadInternships());
+            long[] internshipKeys = internships.sortedKeys();
+            rebuildIndexes(internshipKeys);
+            updateNextInternshipId(internshipKeys);
+            initialized = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     private void ensureInitialized() {
@@ -53,33 +98,205 @@ import java.util.*;
         }
     }
 
-    private void updateNextInternshipId() {
-        nextInternshipId = 1;
-        for (String key : internships.keySet()) {
-            if (key.startsWith("INT")) {
-                try {
-                    int value = Integer.parseInt(key.substring(3));
-                    if (value >= nextInternshipId) {
-                        nextInternshipId = value + 1;
-                    }
-                } catch (NumberFormatException ignored) {
-                }
+    private void rebuildIndexes(long[] internshipKeys) {
+        indexedStates.clear();
+        slotsByStatus.clear();
+        slotsByLevel.clear();
+        slotsByMajor.clear();
+        slotsByCompanyRep.clear();
+        slotsByClosingDate.clear();
+        occupiedSlots.clear();
+        visibleSlots.clear();
+        Arrays.fill(internshipsBySlot, null);
+        for (long internshipKey : internshipKeys) {
+            index(internshipKey, internships.getByKey(internshipKey));
+        }
+    }
+
+    private void index(long internshipKey, Internship internship) {
+        IndexedState state = new IndexedState(allocateSlot(internship), internship);
+        indexedStates.put(internshipKey, state);
+        setSlot(slotsByStatus, state.status, state.slot);
+        setSlot(slotsByLevel, state.level, state.slot);
+        setSlot(slotsByMajor, state.majorCode, state.slot);
+        if (internship.getCompanyRepId() != null) {
+            setSlot(slotsByCompanyRep, IdCodec.STUDENT.key(internship.getCompanyRepId()), state.slot);
+        }
+        setSlot(slotsByClosingDate, state.closingDate, state.slot);
+        visibleSlots.set(state.slot, state.visible);
+        internship.setChangeListener(changeListener);
+    }
+
+    private int allocateSlot(Internship internship) {
+        int slot = occupiedSlots.nextClearBit(0);
+        if (slot == internshipsBySlot.length) {
+            internshipsBySlot = Arrays.copyOf(internshipsBySlot, slot * 2);
+        }
+        occupiedSlots.set(slot);
+        internshipsBySlot[slot] = internship;
+        return slot;
+    }
+
+    private static <K> void setSlot(Map<K, BitSet> index, K key, int slot) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new BitSet()).set(slot);
+        }
+    }
+
+    private static <K> void clearSlot(Map<K, BitSet> index, K key, int slot) {
+        if (key == null) {
+            return;
+        }
+        BitSet slots = index.get(key);
+        if (slots != null) {
+            slots.clear(slot);
+            if (slots.isEmpty()) {
+                index.remove(key);
             }
         }
     }
 
-    public synchronized void save() {
-        ensureInitialized();
+    private static void setSlot(LongHashMap<BitSet> index, long key, int slot) {
+        BitSet slots = index.get(key);
+        if (slots == null) {
+            slots = new BitSet();
+            index.put(key, slots);
+        }
+        slots.set(slot);
+    }
+
+    private static void clearSlot(LongHashMap<BitSet> index, long key, int slot) {
+        BitSet slots = index.get(key);
+        if (slots != null) {
+            slots.clear(slot);
+            if (slots.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private void unindex(long internshipKey, Internship internship) {
+        IndexedState state = indexedStates.remove(internshipKey);
+        if (state != null) {
+            clearSlot(slotsByStatus, state.status, state.slot);
+            clearSlot(slotsByLevel, state.level, state.slot);
+            clearSlot(slotsByMajor, state.majorCode, state.slot);
+            clearSlot(slotsByCompanyRep, IdCodec.STUDENT.findKey(internship.getCompanyRepId()), state.slot);
+            clearSlot(slotsByClosingDate, state.closingDate, state.slot);
+            occupiedSlots.clear(state.slot);
+            visibleSlots.clear(state.slot);
+            internshipsBySlot[state.slot] = null;
+        }
+        internship.setChangeListener(null);
+    }
+
+    private void reindex(Internship internship) {
+        modificationCount.incrementAndGet();
+        lock.writeLock().lock();
         try {
-            FileManager.saveInternships(internships);
-        } catch (IOException e) {
-            throw new RuntimeException("Unable to save internships", e);
+            reindexLocked(internship);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reindexLocked(Internship internship) {
+        long internshipKey = IdCodec.INTERNSHIP.findKey(internship.getInternshipId());
+        IndexedState state = indexedStates.get(internshipKey);
+        if (state == null || internships.getByKey(internshipKey) != internship) {
+            return;
+        }
+
+        if (state.status != internship.getStatus()) {
+            clearSlot(slotsByStatus, state.status, state.slot);
+            setSlot(slotsByStatus, internship.getStatus(), state.slot);
+            state.status = internship.getStatus();
+        }
+
+        if (state.level != internship.getLevel()) {
+            clearSlot(slotsByLevel, state.level, state.slot);
+            setSlot(slotsByLevel, internship.getLevel(), state.slot);
+            state.level = internship.getLevel();
+        }
+
+        int majorCode = MajorDictionary.codeOf(internship);
+        if (state.majorCode != majorCode) {
+            clearSlot(slotsByMajor, state.majorCode, state.slot);
+            setSlot(slotsByMajor, majorCode, state.slot);
+            state.majorCode = majorCode;
+        }
+
+        if (!Objects.equals(state.closingDate, internship.getClosingDate())) {
+            clearSlot(slotsByClosingDate, state.closingDate, state.slot);
+            setSlot(slotsByClosingDate, internship.getClosingDate(), state.slot);
+            state.closingDate = internship.getClosingDate();
+        }
+
+        if (state.visible != internship.isVisible()) {
+            state.visible = internship.isVisible();
+            visibleSlots.set(state.slot, state.visible);
+        }
+    }
+
+    private void updateNextInternshipId(long[] internshipKeys) {
+        long next = 1;
+        for (long internshipKey : internshipKeys) {
+            long value = IdCodec.INTERNSHIP.number(internshipKey);
+            if (value >= next) {
+                next = value + 1;
+            }
+        }
+        nextInternshipId.set(next);
+    }
+
+    /**
+     * bumped by every mutation and internship change notification, including slot changes
+     */
+    public long getModificationCount() {
+        return modificationCount.get();
+    }
+
+    public boolean isDirty() {
+        return modificationCount.get() != savedModificationCount;
+    }
+
+    public void save() {
+        ensureInitialized();
+        if (!isDirty()) {
+            return;
+        }
+        PersistenceExecutor.getInstance().markDirty("internships", this::saveNow);
+    }
+
+    public void saveNow() {
+        ensureInitialized();
+        synchronized (saveLock) {
+            if (!isDirty()) {
+                return;
+            }
+
+            Map<String, Internship> snapshot;
+            long snapshotCount;
+            lock.readLock().lock();
+            try {
+                snapshotCount = modificationCount.get();
+                snapshot = internships.copy();
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            try {
+                FileManager.saveInternships(snapshot);
+                savedModificationCount = snapshotCount;
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to save internships", e);
+            }
         }
     }
 
     public String nextId() {
         ensureInitialized();
-        return "INT" + String.format("%05d", nextInternshipId++);
+        return IdCodec.INTERNSHIP.render(nextInternshipId.getAndIncrement());
     }
 
     public Internship getInternshipById(String internshipId) {
@@ -94,45 +311,272 @@ import java.util.*;
 
     public List<Internship> getVisibleInternships() {
         ensureInitialized();
-        List<Internship> result = new ArrayList<>();
-        for (Internship internship : internships.values()) {
-            if (internship.isVisible() && internship.getStatus() == InternshipStatus.Approved) {
-                result.add(internship);
+        lock.readLock().lock();
+        try {
+            BitSet approved = slotsByStatus.get(InternshipStatus.Approved);
+            if (approved == null) {
+                return new ArrayList<>();
             }
+            BitSet matches = (BitSet) approved.clone();
+            matches.and(visibleSlots);
+            return internshipsAt(matches);
+        } finally {
+            lock.readLock().unlock();
         }
-        return result;
     }
 
     public List<Internship> getPendingInternships() {
+        return getInternshipsByStatus(InternshipStatus.Pending);
+    }
+
+    public List<Internship> getInternshipsByStatus(InternshipStatus status) {
         ensureInitialized();
-        List<Internship> pending = new ArrayList<>();
-        for (Internship internship : internships.values()) {
-            if (internship.getStatus() == InternshipStatus.Pending) {
-                pending.add(internship);
-            }
+        lock.readLock().lock();
+        try {
+            BitSet slots = slotsByStatus.get(status);
+            return slots == null ? new ArrayList<>() : internshipsAt(slots);
+        } finally {
+            lock.readLock().unlock();
         }
-        return pending;
     }
 
     public List<Internship> getInternshipsByCompanyRep(String repId) {
         ensureInitialized();
-        List<Internship> owned = new ArrayList<>();
-        for (Internship internship : internships.values()) {
-            if (internship.getCompanyRepId().equals(repId)) {
-                owned.add(internship);
+        lock.readLock().lock();
+        try {
+            BitSet slots = slotsByCompanyRep.get(IdCodec.STUDENT.findKey(repId));
+            return slots == null ? new ArrayList<>() : internshipsAt(slots);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * answers a FilterSettings query from the slot indexes.
+     *
+     * each multi-value criterion is the union of its value bitmaps, the criteria are intersected
+     * smallest first and the closing date is applied last, either by probing the few remaining
+     * candidates or by a range scan over the closing-date map, whichever touches fewer entries.
+     * a closing date on the given day still counts as before it, like Filter's closing date filter
+     */
+    public List<Internship> findInternships(FilterSettings settings) {
+        ensureInitialized();
+        List<InternshipStatus> statuses = parseAll(InternshipStatus.class, settings.getStatusIn());
+        List<InternshipLevel> levels = parseAll(InternshipLevel.class, settings.getLevelsIn());
+        List<Integer> majorCodes = new ArrayList<>();
+        for (String major : settings.getPreferredMajorsIn()) {
+            majorCodes.add(MajorDictionary.lookup(major));
+        }
+        LocalDate closingDateBefore = settings.getClosingDateBefore();
+
+        lock.readLock().lock();
+        try {
+            List<BitSet> criteria = new ArrayList<>(3);
+            if (!statuses.isEmpty()) {
+                criteria.add(union(slotsByStatus, statuses));
+            }
+            if (!levels.isEmpty()) {
+                criteria.add(union(slotsByLevel, levels));
+            }
+            if (!majorCodes.isEmpty()) {
+                criteria.add(union(slotsByMajor, majorCodes));
+            }
+            criteria.sort(Comparator.comparingInt(BitSet::cardinality));
+
+            BitSet matches = (BitSet) (criteria.isEmpty() ? occupiedSlots : criteria.get(0)).clone();
+            for (int i = 1; i < criteria.size() && !matches.isEmpty(); i++) {
+                matches.and(criteria.get(i));
+            }
+
+            if (closingDateBefore != null) {
+                restrictToClosingDates(matches, slotsByClosingDate.headMap(closingDateBefore, true));
+            }
+            return internshipsAt(matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * internships whose closing date is strictly before the given date, i.e. expired on that day
+     */
+    public List<Internship> getInternshipsClosingBefore(LocalDate date) {
+        ensureInitialized();
+        lock.readLock().lock();
+        try {
+            BitSet matches = new BitSet();
+            for (BitSet slots : slotsByClosingDate.headMap(date, false).values()) {
+                matches.or(slots);
+            }
+            return internshipsAt(matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * moves every approved internship whose closing date is before today to Closed in one pass
+     * under the write lock, filled internships keep their status. returns how many were closed,
+     * the caller saves once afterwards
+     */
+    public int closeExpiredInternships(LocalDate today) {
+        ensureInitialized();
+        lock.writeLock().lock();
+        try {
+            int closed = 0;
+            for (Internship internship : getInternshipsClosingBefore(today)) {
+                if (internship.getStatus() == InternshipStatus.Approved) {
+                    internship.setStatus(InternshipStatus.Closed);
+                    closed++;
+                }
+            }
+            return closed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * internships a student could apply to on the given day, the same set Internship.isOpenForApplication
+     * accepts: approved and visible from the bitmaps, not yet closed from the closing-date map,
+     * then the opening date and free slots are checked on what is left
+     */
+    public List<Internship> getOpenInternships(LocalDate today) {
+        ensureInitialized();
+        lock.readLock().lock();
+        try {
+            BitSet approved = slotsByStatus.get(InternshipStatus.Approved);
+            if (approved == null) {
+                return new ArrayList<>();
+            }
+            BitSet matches = (BitSet) approved.clone();
+            matches.and(visibleSlots);
+            restrictToClosingDates(matches, slotsByClosingDate.tailMap(today, true));
+
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                Internship internship = internshipsBySlot[slot];
+                if (today.isBefore(internship.getOpeningDate()) || internship.getAvailableSlots() <= 0) {
+                    matches.clear(slot);
+                }
             }
+            return internshipsAt(matches);
+        } finally {
+            lock.readLock().unlock();
         }
-        return owned;
+    }
+
+    /**
+     * keeps only the slots whose closing date lies in the range, probing each candidate when there
+     * are fewer candidates than dates in the range and or-ing the range's bitmaps otherwise
+     */
+    private void restrictToClosingDates(BitSet matches, NavigableMap<LocalDate, BitSet> range) {
+        if (matches.isEmpty()) {
+            return;
+        }
+        if (matches.cardinality() <= range.size()) {
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                LocalDate closingDate = internshipsBySlot[slot].getClosingDate();
+                if (closingDate == null || !range.containsKey(closingDate)) {
+                    matches.clear(slot);
+                }
+            }
+            return;
+        }
+
+        BitSet inRange = new BitSet();
+        for (BitSet slots : range.values()) {
+            inRange.or(slots);
+        }
+        matches.and(inRange);
+    }
+
+    private List<Internship> internshipsAt(BitSet slots) {
+        List<Internship> result = new ArrayList<>(slots.cardinality());
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            result.add(internshipsBySlot[slot]);
+        }
+        return result;
+    }
+
+    private static <K> BitSet union(Map<K, BitSet> index, List<K> keys) {
+        if (keys.size() == 1) {
+            BitSet slots = index.get(keys.get(0));
+            return slots == null ? new BitSet() : slots;
+        }
+        BitSet union = new BitSet();
+        for (K key : keys) {
+            BitSet slots = index.get(key);
+            if (slots != null) {
+                union.or(slots);
+            }
+        }
+        return union;
+    }
+
+    private static <E extends Enum<E>> List<E> parseAll(Class<E> type, List<String> names) {
+        List<E> values = new ArrayList<>(names.size());
+        for (String name : names) {
+            E match = null;
+            for (E constant : type.getEnumConstants()) {
+                if (constant.name().equalsIgnoreCase(name.trim())) {
+                    match = constant;
+                }
+            }
+            if (match == null) {
+                throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " filter: " + name);
+            }
+            values.add(match);
+        }
+        return values;
     }
 
     public void addInternship(Internship internship) {
         ensureInitialized();
-        internships.put(internship.getInternshipId(), internship);
+        lock.writeLock().lock();
+        try {
+            long internshipKey = IdCodec.INTERNSHIP.key(internship.getInternshipId());
+            Internship previous = internships.put(internship.getInternshipId(), internship);
+            if (previous != null) {
+                unindex(internshipKey, previous);
+            }
+            index(internshipKey, internship);
+            modificationCount.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     public void removeInternship(String internshipId) {
         ensureInitialized();
-        internships.remove(internshipId);
+        lock.writeLock().lock();
+        try {
+            long internshipKey = IdCodec.INTERNSHIP.findKey(internshipId);
+            Internship removed = internships.remove(internshipId);
+            if (removed != null) {
+                unindex(internshipKey, removed);
+                modificationCount.incrementAndGet();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static final class IndexedState {
+        private final int slot;
+        private InternshipStatus status;
+        private boolean visible;
+        private InternshipLevel level;
+        private int majorCode;
+        private LocalDate closingDate;
+
+        private IndexedState(int slot, Internship internship) {
+            this.slot = slot;
+            this.status = internship.getStatus();
+            this.visible = internship.isVisible();
+            this.level = internship.getLevel();
+            this.majorCode = MajorDictionary.codeOf(internship);
+            this.closingDate = internship.getClosingDate();
+        }
     }
 }
 
@@ -0,0 +1,114 @@
+package repository;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * Writes registry snapshots in the background.
+ * 
+ * registries mark themselves dirty instead of saving on the caller's thread,
+ * a burst of marks is coalesced into one write per registry per flush interval.
+ * pending writes are flushed synchronously on logout and on JVM shutdown
+ * 
+ * a write that fails stays queued unless a newer one for the same registry has
+ * been queued meanwhile, and is retried after RETRY_INTERVAL_MILLIS. flush()
+ * throws once every pending write has been tried, so logout can report it
+ * 
+ */
+
+
+
+public class PersistenceExecutor {
+    private static final PersistenceExecutor INSTANCE = new PersistenceExecutor();
+    private static final long FLUSH_INTERVAL_MILLIS = 500;
+    private static final long RETRY_INTERVAL_MILLIS = 5000;
+
+    private final Map<String, Runnable> pendingWrites = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "persistence-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private PersistenceExecutor() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushOnShutdown, "persistence-shutdown-flush"));
+    }
+
+    public static PersistenceExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * queues a write for the named registry, repeated marks before the next flush
+     * collapse into a single write
+     */
+    public void markDirty(String registryName, Runnable writer) {
+        pendingWrites.put(registryName, writer);
+        scheduleFlush(FLUSH_INTERVAL_MILLIS);
+    }
+
+    private void scheduleFlush(long delayMillis) {
+        if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::runScheduledFlush, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void runScheduledFlush() {
+        flushScheduled.set(false);
+        try {
+            flush();
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage() + ", retrying");
+        }
+    }
+
+    private void flushOnShutdown() {
+        try {
+            flush();
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage() + ", changes since the last save are lost");
+        }
+    }
+
+    /**
+     * runs every pending write on the calling thread. writes that fail are queued again
+     * and retried later, the first failure is thrown with the others suppressed on it
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            IllegalStateException failure = null;
+            for (String registryName : new ArrayList<>(pendingWrites.keySet())) {
+                Runnable writer = pendingWrites.remove(registryName);
+                if (writer == null) {
+                    continue;
+                }
+                try {
+                    writer.run();
+                } catch (RuntimeException e) {
+                    pendingWrites.putIfAbsent(registryName, writer);
+                    if (failure == null) {
+                        failure = new IllegalStateException("Error saving " + registryName + ": " + e.getMessage(), e);
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                scheduleFlush(RETRY_INTERVAL_MILLIS);
+                throw failure;
+            }
+        }
+    }
+
+    public boolean hasPendingWrites() {
+        return !pendingWrites.isEmpty();
+    }
+}
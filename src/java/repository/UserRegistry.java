@@ -2,9 +2,11 @@ package repository;
 
 import entity.User;
 import util.FileManager;
+import util.IdCodec;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -12,6 +14,11 @@ import java.util.*;
  * 
  * handles user submissions, lookups, and persistence
  * 
+ * backed by an IdMap keyed by the users' IdCodec keys, snapshots are copied before being written
+ * so saves never block logins
+ * 
+ * save() only writes when a mutator or markModified has run since the last write
+ * 
  * 
  */
 
@@ -23,8 +30,11 @@ import java.util.*;
 public class UserRegistry {
     private static final UserRegistry INSTANCE = new UserRegistry();
 
-    private final Map<String, User> users = new HashMap<>();
-    private boolean initialized = false;
+    private final IdMap<User> users = new IdMap<>(IdCodec.STUDENT);
+    private final Object saveLock = new Object();
+    private volatile boolean initialized = false;
+    private final AtomicLong modificationCount = new AtomicLong();
+    private volatile long savedModificationCount = 0;
 
     private UserRegistry() {
     }
@@ -52,12 +62,37 @@ public class UserRegistry {
         }
     }
 
-    public synchronized void save() {
+    public boolean isDirty() {
+        return modificationCount.get() != savedModificationCount;
+    }
+
+    public void markModified(User user) {
+        if (user != null && users.get(user.getUserId()) == user) {
+            modificationCount.incrementAndGet();
+        }
+    }
+
+    public void save() {
         ensureInitialized();
-        try {
-            FileManager.saveUsers(users);
-        } catch (IOException e) {
-            throw new RuntimeException("Unable to save users", e);
+        if (!isDirty()) {
+            return;
+        }
+        PersistenceExecutor.getInstance().markDirty("users", this::saveNow);
+    }
+
+    public void saveNow() {
+        ensureInitialized();
+        synchronized (saveLock) {
+            if (!isDirty()) {
+                return;
+            }
+            long snapshotCount = modificationCount.get();
+            try {
+                FileManager.saveUsers(users.copy());
+                savedModificationCount = snapshotCount;
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to save users", e);
+            }
         }
     }
 
@@ -78,11 +113,14 @@ public class UserRegistry {
     public void addUser(User user) {
         ensureInitialized();
         users.put(user.getUserId(), user);
+        modificationCount.incrementAndGet();
     }
 
     public void removeUser(String userId) {
         ensureInitialized();
-        users.remove(userId);
+        if (users.remove(userId) != null) {
+            modificationCount.incrementAndGet();
+        }
     }
 
 
@@ -1,11 +1,18 @@
 package repository;
 
 import entity.WithdrawalRequest;
+import entity.enums.WithdrawalStatus;
 import util.FileManager;
+import util.IdCodec;
+import util.LongHashMap;
+import util.LongSet;
+import util.Page;
 
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 
 /**
@@ -13,6 +20,16 @@ import java.util.*;
  * 
  * handles withdrawal request submissions, lookups, and persistence
  * 
+ * requests are kept in an IdMap with student and status indexes beside it, a student's key
+ * maps to the sorted keys of its requests, so lookups cost time proportional to the result
+ * size and come back in request id order
+ * 
+ * safe for concurrent use: point reads are lock-free, index reads take the read lock,
+ * mutations take the write lock. ids are handed out atomically and snapshots are copied
+ * before being written so saves never block readers
+ * 
+ * save() only writes when addRequest or updateStatus has run since the last write
+ * 
  * 
  */
 
@@ -22,9 +39,15 @@ import java.util.*;
 public class WithdrawalRegistry {
     private static final WithdrawalRegistry INSTANCE = new WithdrawalRegistry();
 
-    private final Map<String, WithdrawalRequest> withdrawalRequests = new HashMap<>();
-    private boolean initialized = false;
-    private int nextWithdrawalId = 1;
+    private final IdMap<WithdrawalRequest> withdrawalRequests = new IdMap<>(IdCodec.WITHDRAWAL);
+    private final LongHashMap<LongSet> keysByStudent = new LongHashMap<>();
+    private final Map<WithdrawalStatus, LongSet> keysByStatus = new EnumMap<>(WithdrawalStatus.class);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object saveLock = new Object();
+    private final AtomicLong nextWithdrawalId = new AtomicLong(1);
+    private volatile boolean initialized = false;
+    private final AtomicLong modificationCount = new AtomicLong();
+    private volatile long savedModificationCount = 0;
 
     private WithdrawalRegistry() {
     }
@@ -37,10 +60,17 @@ public class WithdrawalRegistry {
         if (initialized) {
             return;
         }
-        withdrawalRequests.clear();
-        withdrawalRequests.putAll(FileManager.loadWithdrawalRequests());
-        updateNextWithdrawalId();
-        initialized = true;
+        lock.writeLock().lock();
+        try {
+            withdrawalRequests.clear();
+            withdrawalRequests.putAll(FileManager.loadWithdrawalRequests());
+            long[] requestKeys = withdrawalRequests.sortedKeys();
+            rebuildIndexes(requestKeys);
+            updateNextWithdrawalId(requestKeys);
+            initialized = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     private void ensureInitialized() {
@@ -53,33 +83,99 @@ public class WithdrawalRegistry {
         }
     }
 
-    private void updateNextWithdrawalId() {
-        nextWithdrawalId = 1;
-        for (String key : withdrawalRequests.keySet()) {
-            if (key.startsWith("WR")) {
-                try {
-                    int value = Integer.parseInt(key.substring(2));
-                    if (value >= nextWithdrawalId) {
-                        nextWithdrawalId = value + 1;
-                    }
-                } catch (NumberFormatException ignored) {
-                }
+    /**
+     * indexes the requests in key order so every index insert is an append
+     */
+    private void rebuildIndexes(long[] requestKeys) {
+        keysByStudent.clear();
+        keysByStatus.clear();
+        for (long requestKey : requestKeys) {
+            index(requestKey, withdrawalRequests.getByKey(requestKey));
+        }
+    }
+
+    private void index(long requestKey, WithdrawalRequest request) {
+        long studentKey = IdCodec.STUDENT.key(request.getStudentId());
+        LongSet keys = keysByStudent.get(studentKey);
+        if (keys == null) {
+            keys = new LongSet();
+            keysByStudent.put(studentKey, keys);
+        }
+        keys.add(requestKey);
+        keysByStatus.computeIfAbsent(request.getStatus(), k -> new LongSet()).add(requestKey);
+    }
+
+    private void unindex(long requestKey, WithdrawalRequest request) {
+        long studentKey = IdCodec.STUDENT.findKey(request.getStudentId());
+        LongSet keys = keysByStudent.get(studentKey);
+        if (keys != null) {
+            keys.remove(requestKey);
+            if (keys.isEmpty()) {
+                keysByStudent.remove(studentKey);
+            }
+        }
+        keys = keysByStatus.get(request.getStatus());
+        if (keys != null) {
+            keys.remove(requestKey);
+            if (keys.isEmpty()) {
+                keysByStatus.remove(request.getStatus());
+            }
+        }
+    }
+
+    private List<WithdrawalRequest> lookup(LongSet keys) {
+        if (keys == null) {
+            return new ArrayList<>();
+        }
+        List<WithdrawalRequest> list = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            list.add(withdrawalRequests.getByKey(keys.get(i)));
+        }
+        return list;
+    }
+
+    private void updateNextWithdrawalId(long[] requestKeys) {
+        long next = 1;
+        for (long requestKey : requestKeys) {
+            long value = IdCodec.WITHDRAWAL.number(requestKey);
+            if (value >= next) {
+                next = value + 1;
             }
         }
+        nextWithdrawalId.set(next);
+    }
+
+    public boolean isDirty() {
+        return modificationCount.get() != savedModificationCount;
     }
 
-    public synchronized void save() {
+    public void save() {
         ensureInitialized();
-        try {
-            FileManager.saveWithdrawalRequests(withdrawalRequests);
-        } catch (IOException e) {
-            throw new RuntimeException("Unable to save withdrawal requests", e);
+        if (!isDirty()) {
+            return;
+        }
+        PersistenceExecutor.getInstance().markDirty("withdrawals", this::saveNow);
+    }
+
+    public void saveNow() {
+        ensureInitialized();
+        synchronized (saveLock) {
+            if (!isDirty()) {
+                return;
+            }
+            long snapshotCount = modificationCount.get();
+            try {
+                FileManager.saveWithdrawalRequests(withdrawalRequests.copy());
+                savedModificationCount = snapshotCount;
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to save withdrawal requests", e);
+            }
         }
     }
 
     public String nextId() {
         ensureInitialized();
-        return "WR" + String.format("%05d", nextWithdrawalId++);
+        return IdCodec.WITHDRAWAL.render(nextWithdrawalId.getAndIncrement());
     }
 
     public WithdrawalRequest newRequest(String applicationId,
@@ -100,7 +196,42 @@ public class WithdrawalRegistry {
 
     public void addRequest(WithdrawalRequest request) {
         ensureInitialized();
-        withdrawalRequests.put(request.getRequestId(), request);
+        lock.writeLock().lock();
+        try {
+            long requestKey = IdCodec.WITHDRAWAL.key(request.getRequestId());
+            WithdrawalRequest previous = withdrawalRequests.put(request.getRequestId(), request);
+            if (previous != null) {
+                unindex(requestKey, previous);
+            }
+            index(requestKey, request);
+            modificationCount.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * sets the status and moves the stored request with the same id to the new status index,
+     * a request that is not stored only has its own status changed
+     */
+    public void updateStatus(WithdrawalRequest request, WithdrawalStatus status) {
+        ensureInitialized();
+        lock.writeLock().lock();
+        try {
+            long requestKey = IdCodec.WITHDRAWAL.findKey(request.getRequestId());
+            WithdrawalRequest stored = withdrawalRequests.getByKey(requestKey);
+            if (stored == null) {
+                request.setStatus(status);
+                return;
+            }
+            unindex(requestKey, stored);
+            request.setStatus(status);
+            withdrawalRequests.put(request.getRequestId(), request);
+            index(requestKey, request);
+            modificationCount.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     public WithdrawalRequest getRequestById(String requestId) {
@@ -110,24 +241,45 @@ public class WithdrawalRegistry {
 
     public List<WithdrawalRequest> getPendingRequests() {
         ensureInitialized();
-        List<WithdrawalRequest> pending = new ArrayList<>();
-        for (WithdrawalRequest request : withdrawalRequests.values()) {
-            if (request.getStatus() == entity.enums.WithdrawalStatus.Pending) {
-                pending.add(request);
+        lock.readLock().lock();
+        try {
+            return lookup(keysByStatus.get(WithdrawalStatus.Pending));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * the pending requests from offset up to offset + limit in request id order. the status index
+     * is already sorted, so only the requests on the page are looked up
+     */
+    public Page<WithdrawalRequest> getPendingRequests(int offset, int limit) {
+        ensureInitialized();
+        Page.checkRange(offset, limit);
+        lock.readLock().lock();
+        try {
+            LongSet keys = keysByStatus.get(WithdrawalStatus.Pending);
+            int total = keys == null ? 0 : keys.size();
+            int from = Math.min(offset, total);
+            int to = (int) Math.min((long) offset + limit, total);
+            List<WithdrawalRequest> items = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                items.add(withdrawalRequests.getByKey(keys.get(i)));
             }
+            return new Page<>(items, offset, total);
+        } finally {
+            lock.readLock().unlock();
         }
-        return pending;
     }
 
     public List<WithdrawalRequest> getRequestsByStudent(String studentId) {
         ensureInitialized();
-        List<WithdrawalRequest> list = new ArrayList<>();
-        for (WithdrawalRequest request : withdrawalRequests.values()) {
-            if (request.getStudentId().equals(studentId)) {
-                list.add(request);
-            }
+        lock.readLock().lock();
+        try {
+            return lookup(keysByStudent.get(IdCodec.STUDENT.findKey(studentId)));
+        } finally {
+            lock.readLock().unlock();
         }
-        return list;
     }
 
     public Collection<WithdrawalRequest> getAllRequests() {
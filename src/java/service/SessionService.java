@@ -2,9 +2,13 @@ package service;
 
 import entity.User;
 
+import java.util.function.Supplier;
+
 /**
  * SessionService defines methods for session management
  * 
+ * token sessions let several users be logged in at once, each request runs inside its own session
+ * 
  * 
  */
 
@@ -17,6 +21,12 @@ public interface SessionService {
     boolean isLoggedIn();
 
     void clearSession();
+
+    String openSession(User user);
+
+    void closeSession(String token);
+
+    <T> T runInSession(String token, Supplier<T> action);
 }
 
 
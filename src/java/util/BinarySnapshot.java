@@ -0,0 +1,384 @@
+package util;
+
+import entity.*;
+import entity.enums.*;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * class handles the compact binary snapshot format written alongside the csv files.
+ *
+ * strings are length prefixed utf-8, dates are epoch-day ints and enums are ordinal bytes.
+ * snapshots are read back through a memory-mapped FileChannel, csv stays the interchange format
+ *
+ */
+
+
+
+public final class BinarySnapshot {
+    private static final int MAGIC = 0x49504D53;
+    private static final byte VERSION = 1;
+
+    private static final byte KIND_USERS = 1;
+    private static final byte KIND_INTERNSHIPS = 2;
+    private static final byte KIND_APPLICATIONS = 3;
+    private static final byte KIND_WITHDRAWALS = 4;
+
+    private static final byte USER_STUDENT = 0;
+    private static final byte USER_COMPANY_REP = 1;
+    private static final byte USER_STAFF = 2;
+
+    private static final int NULL_LENGTH = -1;
+    private static final int NULL_DATE = Integer.MIN_VALUE;
+
+    private BinarySnapshot() {
+    }
+
+
+
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+
+
+    private static void write(Path path, byte kind, int count, RecordWriter records) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(kind);
+            out.writeInt(count);
+            records.write(out);
+            out.flush();
+            channel.force(true);
+        }
+
+        FileManager.moveIntoPlace(temp, path);
+    }
+
+
+
+    private static ByteBuffer map(Path path, byte kind) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.remaining() < 10 || buffer.getInt() != MAGIC || buffer.get() != VERSION || buffer.get() != kind) {
+                throw new IOException(path + " is not a current snapshot file");
+            }
+            return buffer;
+        }
+    }
+
+
+
+
+
+    public static void writeUsers(Path path, Map<String, User> users) throws IOException {
+        write(path, KIND_USERS, users.size(), out -> {
+            for (User user : users.values()) {
+
+                if (user instanceof Student) {
+                    Student s = (Student) user;
+                    writeUserHeader(out, USER_STUDENT, user);
+                    out.writeInt(s.getYearOfStudy());
+                    writeString(out, s.getMajor());
+                }
+
+                else if (user instanceof CompanyRepresentative) {
+                    CompanyRepresentative cr = (CompanyRepresentative) user;
+                    writeUserHeader(out, USER_COMPANY_REP, user);
+                    writeString(out, cr.getCompanyName());
+                    writeString(out, cr.getDepartment());
+                    writeString(out, cr.getPosition());
+                    out.writeBoolean(cr.isApproved());
+                }
+
+                else if (user instanceof CareerCenterStaff) {
+                    writeUserHeader(out, USER_STAFF, user);
+                    writeString(out, ((CareerCenterStaff) user).getDepartment());
+                }
+
+                else {
+                    throw new IOException("Unsupported user type: " + user.getUserRole());
+                }
+            }
+        });
+    }
+
+
+
+    private static void writeUserHeader(DataOutputStream out, byte type, User user) throws IOException {
+        out.writeByte(type);
+        writeString(out, user.getUserId());
+        writeString(out, user.getName());
+        writeString(out, user.getPassword());
+    }
+
+
+
+    public static Map<String, User> readUsers(Path path) throws IOException {
+        ByteBuffer in = map(path, KIND_USERS);
+
+        try {
+            int count = in.getInt();
+            Map<String, User> users = new HashMap<>(capacityFor(count));
+
+            for (int i = 0; i < count; i++) {
+                byte type = in.get();
+                String userId = readString(in);
+                String name = readString(in);
+                String password = readString(in);
+
+                if (type == USER_STUDENT) {
+                    int yearOfStudy = in.getInt();
+                    String major = MajorDictionary.intern(readString(in));
+                    users.put(userId, new Student(userId, name, password, yearOfStudy, major));
+                }
+
+                else if (type == USER_COMPANY_REP) {
+                    CompanyRepresentative cr = new CompanyRepresentative(userId, name, password,
+                        readString(in), readString(in), readString(in));
+                    cr.setApproved(in.get() != 0);
+                    users.put(userId, cr);
+                }
+
+                else if (type == USER_STAFF) {
+                    users.put(userId, new CareerCenterStaff(userId, name, password, readString(in)));
+                }
+
+                else {
+                    throw new IOException(path + " contains an unknown user type");
+                }
+            }
+            return users;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | DateTimeException e) {
+            throw new IOException(path + " is truncated or corrupt", e);
+        }
+    }
+
+
+
+
+
+    public static void writeInternships(Path path, Map<String, Internship> internships) throws IOException {
+        write(path, KIND_INTERNSHIPS, internships.size(), out -> {
+            for (Internship internship : internships.values()) {
+                writeString(out, internship.getInternshipId());
+                writeString(out, internship.getTitle());
+                writeString(out, internship.getDescription());
+                out.writeByte(internship.getLevel().ordinal());
+                writeString(out, internship.getPreferredMajor());
+                writeDate(out, internship.getOpeningDate());
+                writeDate(out, internship.getClosingDate());
+                out.writeByte(internship.getStatus().ordinal());
+                writeString(out, internship.getCompanyName());
+                writeString(out, internship.getCompanyRepId());
+                out.writeInt(internship.getTotalSlots());
+                out.writeInt(internship.getFilledSlots());
+                out.writeBoolean(internship.isVisible());
+            }
+        });
+    }
+
+
+
+    public static Map<String, Internship> readInternships(Path path) throws IOException {
+        ByteBuffer in = map(path, KIND_INTERNSHIPS);
+        InternshipLevel[] levels = InternshipLevel.values();
+        InternshipStatus[] statuses = InternshipStatus.values();
+
+        try {
+            int count = in.getInt();
+            Map<String, Internship> internships = new HashMap<>(capacityFor(count));
+
+            for (int i = 0; i < count; i++) {
+                String internshipId = readString(in);
+                String title = readString(in);
+                String description = readString(in);
+                InternshipLevel level = levels[in.get()];
+                String preferredMajor = MajorDictionary.intern(readString(in));
+                LocalDate openingDate = readDate(in);
+                LocalDate closingDate = readDate(in);
+                InternshipStatus status = statuses[in.get()];
+                String companyName = readString(in);
+                String companyRepId = readString(in);
+                int totalSlots = in.getInt();
+                int filledSlots = in.getInt();
+                boolean visible = in.get() != 0;
+
+                Internship internship = new Internship(internshipId, title, description, level, preferredMajor,
+                    openingDate, closingDate, companyName, companyRepId, totalSlots);
+
+                internship.setStatus(status);
+                for (int slot = 0; slot < filledSlots; slot++) {
+                    internship.incrementFilledSlots();
+                }
+                internship.setVisible(visible);
+
+                internships.put(internshipId, internship);
+            }
+            return internships;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | DateTimeException e) {
+            throw new IOException(path + " is truncated or corrupt", e);
+        }
+    }
+
+
+
+
+
+    public static void writeApplications(Path path, Map<String, Application> applications) throws IOException {
+        write(path, KIND_APPLICATIONS, applications.size(), out -> {
+            for (Application app : applications.values()) {
+                writeString(out, app.getApplicationId());
+                writeString(out, app.getStudentId());
+                writeString(out, app.getInternshipId());
+                out.writeByte(app.getStatus().ordinal());
+                writeDate(out, app.getApplicationDate());
+            }
+        });
+    }
+
+
+
+    /**
+     * puts every application of the snapshot into the given map as it is read and returns the map
+     */
+    public static Map<String, Application> readApplications(Path path, Map<String, Application> applications) throws IOException {
+        ByteBuffer in = map(path, KIND_APPLICATIONS);
+        ApplicationStatus[] statuses = ApplicationStatus.values();
+
+        try {
+            int count = in.getInt();
+
+            for (int i = 0; i < count; i++) {
+                String applicationId = readString(in);
+                String studentId = readString(in);
+                String internshipId = readString(in);
+                ApplicationStatus status = statuses[in.get()];
+                LocalDate applicationDate = readDate(in);
+
+                Application app = new Application(applicationId, studentId, internshipId, applicationDate);
+                app.setStatus(status);
+                applications.put(applicationId, app);
+            }
+            return applications;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | DateTimeException e) {
+            throw new IOException(path + " is truncated or corrupt", e);
+        }
+    }
+
+
+
+
+
+    public static void writeWithdrawalRequests(Path path, Map<String, WithdrawalRequest> requests) throws IOException {
+        write(path, KIND_WITHDRAWALS, requests.size(), out -> {
+            for (WithdrawalRequest request : requests.values()) {
+                writeString(out, request.getRequestId());
+                writeString(out, request.getApplicationId());
+                writeString(out, request.getStudentId());
+                writeString(out, request.getInternshipId());
+                out.writeByte(request.getStatus().ordinal());
+                out.writeBoolean(request.isAfterPlacement());
+                writeDate(out, request.getRequestDate());
+                writeString(out, request.getReason());
+            }
+        });
+    }
+
+
+
+    public static Map<String, WithdrawalRequest> readWithdrawalRequests(Path path) throws IOException {
+        ByteBuffer in = map(path, KIND_WITHDRAWALS);
+        WithdrawalStatus[] statuses = WithdrawalStatus.values();
+
+        try {
+            int count = in.getInt();
+            Map<String, WithdrawalRequest> requests = new HashMap<>(capacityFor(count));
+
+            for (int i = 0; i < count; i++) {
+                String requestId = readString(in);
+                String applicationId = readString(in);
+                String studentId = readString(in);
+                String internshipId = readString(in);
+                WithdrawalStatus status = statuses[in.get()];
+                boolean isAfterPlacement = in.get() != 0;
+                LocalDate requestDate = readDate(in);
+                String reason = readString(in);
+
+                WithdrawalRequest request = new WithdrawalRequest(requestId, applicationId, studentId, internshipId,
+                    isAfterPlacement, requestDate, reason);
+                request.setStatus(status);
+                requests.put(requestId, request);
+            }
+            return requests;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException | DateTimeException e) {
+            throw new IOException(path + " is truncated or corrupt", e);
+        }
+    }
+
+
+
+
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length < 0 || length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+
+    private static void writeDate(DataOutputStream out, LocalDate date) throws IOException {
+        out.writeInt(date == null ? NULL_DATE : (int) date.toEpochDay());
+    }
+
+
+
+    private static LocalDate readDate(ByteBuffer in) {
+        int epochDay = in.getInt();
+        return epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+
+
+    private static int capacityFor(int count) {
+        return Math.max(16, (int) (count / 0.75f) + 1);
+    }
+}
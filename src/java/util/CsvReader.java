@@ -0,0 +1,434 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+
+/**
+ * class handles streaming, quote-aware csv parsing for the file manager.
+ *
+ * characters are read straight from a char buffer into a reused record buffer, fields are
+ * kept as offsets into it and only become strings when a loader asks for one
+ *
+ * quoted fields may hold commas, doubled quotes and line breaks, blank records are skipped
+ *
+ * when a footer prefix is given the footer checksum is verified the same way FileManager writes it
+ *
+ */
+
+
+
+public final class CsvReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Reader in;
+    private final String source;
+    private final String footerPrefix;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position = 0;
+    private int limit = 0;
+
+    private char[] record = new char[256];
+    private int recordLength = 0;
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private int fieldCount = 0;
+
+    private final CRC32 crc = new CRC32();
+    private boolean footerReached = false;
+
+    public CsvReader(Reader in, String source) {
+        this(in, source, null);
+    }
+
+    public CsvReader(Reader in, String source, String footerPrefix) {
+        this.in = in;
+        this.source = source;
+        this.footerPrefix = footerPrefix;
+    }
+
+
+
+    /**
+     * advances to the next non-blank record, returns false at the end of the file or the footer
+     */
+    public boolean next() throws IOException {
+        while (!footerReached) {
+            long checksumBefore = crc.getValue();
+            if (!readRecord()) {
+                return false;
+            }
+
+            if (footerPrefix != null && fieldCount == 1 && startsWith(0, footerPrefix)) {
+                verifyFooter(checksumBefore);
+                return false;
+            }
+
+            if (!isBlank()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+
+    /**
+     * skips the header record, returns false when the file is empty
+     */
+    public boolean skipHeader() throws IOException {
+        return next();
+    }
+
+
+
+    public int size() {
+        return fieldCount;
+    }
+
+
+
+    public String get(int field) {
+        checkField(field);
+        return new String(record, fieldStarts[field], fieldEnds[field] - fieldStarts[field]);
+    }
+
+
+
+    public String getTrimmed(int field) {
+        checkField(field);
+        int start = trimStart(field);
+        return new String(record, start, trimEnd(field, start) - start);
+    }
+
+
+
+    public int getInt(int field) {
+        checkField(field);
+        int start = trimStart(field);
+        int end = trimEnd(field, start);
+        boolean negative = start < end && record[start] == '-';
+        int i = negative ? start + 1 : start;
+
+        if (i == end) {
+            throw new NumberFormatException("For input string: \"" + getTrimmed(field) + "\"");
+        }
+
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = record[i] - '0';
+            if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+                throw new NumberFormatException("For input string: \"" + getTrimmed(field) + "\"");
+            }
+            value = value * 10 + digit;
+        }
+
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + getTrimmed(field) + "\"");
+        }
+        return (int) value;
+    }
+
+
+
+    public boolean getBoolean(int field) {
+        checkField(field);
+        int start = trimStart(field);
+        int end = trimEnd(field, start);
+        if (end - start != 4) {
+            return false;
+        }
+        return Character.toLowerCase(record[start]) == 't'
+            && Character.toLowerCase(record[start + 1]) == 'r'
+            && Character.toLowerCase(record[start + 2]) == 'u'
+            && Character.toLowerCase(record[start + 3]) == 'e';
+    }
+
+
+
+    /**
+     * matches the trimmed field against the constant names without allocating,
+     * throws IllegalArgumentException like Enum.valueOf when nothing matches
+     */
+    public <E extends Enum<E>> E getEnum(int field, E[] values) {
+        checkField(field);
+        int start = trimStart(field);
+        int end = trimEnd(field, start);
+
+        for (E value : values) {
+            if (regionEquals(start, end, value.name())) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("No enum constant for " + getTrimmed(field));
+    }
+
+
+
+    /**
+     * parses a yyyy-MM-dd date, an empty field is null like DateUtils.parseDate
+     */
+    public LocalDate getDate(int field) {
+        checkField(field);
+        int start = trimStart(field);
+        int end = trimEnd(field, start);
+
+        if (start == end) {
+            return null;
+        }
+
+        if (end - start == 10 && record[start + 4] == '-' && record[start + 7] == '-') {
+            int year = digits(start, 4);
+            int month = digits(start + 5, 2);
+            int day = digits(start + 8, 2);
+
+            if (year >= 0 && month >= 0 && day >= 0) {
+                try {
+                    return LocalDate.of(year, month, day);
+                } catch (DateTimeException ignored) {
+                }
+            }
+        }
+        throw new IllegalArgumentException("Invalid date format: " + get(field) + ". Expected format: yyyy-MM-dd");
+    }
+
+
+
+    public boolean fieldEquals(int field, String value) {
+        checkField(field);
+        return regionEquals(fieldStarts[field], fieldEnds[field], value);
+    }
+
+
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+
+
+
+
+    private boolean readRecord() throws IOException {
+        recordLength = 0;
+        fieldCount = 0;
+        int fieldStart = 0;
+        boolean inQuotes = false;
+
+        int c = read();
+        if (c < 0) {
+            return false;
+        }
+
+        while (c >= 0) {
+            if (inQuotes) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        append((char) read());
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    append((char) c);
+                }
+            }
+
+            else if (c == '"') {
+                inQuotes = true;
+            }
+
+            else if (c == ',') {
+                endField(fieldStart);
+                fieldStart = recordLength;
+            }
+
+            else if (c == '\n') {
+                break;
+            }
+
+            else if (c == '\r' && peek() == '\n') {
+                read();
+                break;
+            }
+
+            else {
+                append((char) c);
+            }
+
+            c = read();
+        }
+
+        endField(fieldStart);
+        return true;
+    }
+
+
+
+    /**
+     * a carriage return is only left out of the checksum when it starts a CRLF line break,
+     * so the checksum matches the one taken over line-by-line reads
+     */
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        char c = buffer[position++];
+
+        if (c == '\r' && peek() == '\n') {
+            return c;
+        }
+        crc.update(c >>> 8);
+        crc.update(c);
+        return c;
+    }
+
+
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+
+
+    private boolean fill() throws IOException {
+        int read;
+        do {
+            read = in.read(buffer, 0, buffer.length);
+        } while (read == 0);
+
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+
+
+    private void append(char c) {
+        if (recordLength == record.length) {
+            record = Arrays.copyOf(record, record.length * 2);
+        }
+        record[recordLength++] = c;
+    }
+
+
+
+    private void endField(int fieldStart) {
+        if (fieldCount == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, fieldCount * 2);
+            fieldEnds = Arrays.copyOf(fieldEnds, fieldCount * 2);
+        }
+        fieldStarts[fieldCount] = fieldStart;
+        fieldEnds[fieldCount] = recordLength;
+        fieldCount++;
+    }
+
+
+
+    private void verifyFooter(long checksum) throws IOException {
+        footerReached = true;
+        int start = fieldStarts[0] + footerPrefix.length();
+        int end = fieldEnds[0];
+        while (end > start && Character.isWhitespace(record[end - 1])) {
+            end--;
+        }
+
+        long expected = 0;
+        boolean valid = end > start && end - start <= 8;
+        for (int i = start; valid && i < end; i++) {
+            int digit = Character.digit(record[i], 16);
+            valid = digit >= 0;
+            expected = (expected << 4) | digit;
+        }
+
+        if (!valid || expected != checksum || read() >= 0) {
+            throw new IOException(source + " failed checksum verification, the file may be torn");
+        }
+    }
+
+
+
+    private boolean isBlank() {
+        if (fieldCount != 1) {
+            return false;
+        }
+        for (int i = 0; i < recordLength; i++) {
+            if (!Character.isWhitespace(record[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+
+    private boolean startsWith(int field, String prefix) {
+        return fieldEnds[field] - fieldStarts[field] >= prefix.length()
+            && regionEquals(fieldStarts[field], fieldStarts[field] + prefix.length(), prefix);
+    }
+
+
+
+    private boolean regionEquals(int start, int end, String value) {
+        if (end - start != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (record[start + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+
+    private int digits(int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            int digit = record[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+
+
+    private int trimStart(int field) {
+        int start = fieldStarts[field];
+        while (start < fieldEnds[field] && record[start] <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+
+
+    private int trimEnd(int field, int start) {
+        int end = fieldEnds[field];
+        while (end > start && record[end - 1] <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+
+
+    private void checkField(int field) {
+        if (field < 0 || field >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + field + " of " + fieldCount + " in " + source);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package util;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+
+
+/**
+ * class handles writing csv rows for the file manager.
+ *
+ * fields are appended and escaped straight into a reusable char buffer which is handed to the
+ * underlying writer in large chunks, dates are written as yyyy-MM-dd without a DateTimeFormatter
+ *
+ * a null field is written as an empty field
+ *
+ */
+
+
+
+public final class CsvWriter implements Flushable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final char[] MIN_INT = "-2147483648".toCharArray();
+
+    private final Writer out;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int length = 0;
+    private boolean rowStarted = false;
+
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+
+
+    /**
+     * writes the field as is, for values that can never hold a comma, quote or line break
+     */
+    public CsvWriter field(String value) throws IOException {
+        separate();
+        if (value != null) {
+            append(value);
+        }
+        return this;
+    }
+
+
+
+    /**
+     * quotes the field when it holds a comma, quote or line break and doubles inner quotes
+     */
+    public CsvWriter escapedField(String value) throws IOException {
+        separate();
+        if (value == null) {
+            return this;
+        }
+        if (!needsQuotes(value)) {
+            append(value);
+            return this;
+        }
+
+        append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                append('"');
+            }
+            append(c);
+        }
+        append('"');
+        return this;
+    }
+
+
+
+    public CsvWriter field(Enum<?> value) throws IOException {
+        return field(value == null ? null : value.name());
+    }
+
+
+
+    public CsvWriter field(boolean value) throws IOException {
+        return field(value ? "true" : "false");
+    }
+
+
+
+    public CsvWriter field(int value) throws IOException {
+        separate();
+        if (value == Integer.MIN_VALUE) {
+            append(MIN_INT, MIN_INT.length);
+            return this;
+        }
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+
+        ensureCapacity(10);
+        int digits = digitCount(value);
+        for (int i = length + digits - 1; i >= length; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+        return this;
+    }
+
+
+
+    /**
+     * writes yyyy-MM-dd like DateUtils.formatDate, years outside 0-9999 go through DateUtils
+     */
+    public CsvWriter field(LocalDate date) throws IOException {
+        if (date == null) {
+            return field((String) null);
+        }
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            return field(DateUtils.formatDate(date));
+        }
+
+        separate();
+        ensureCapacity(10);
+        putDigits(year, 4);
+        buffer[length++] = '-';
+        putDigits(date.getMonthValue(), 2);
+        buffer[length++] = '-';
+        putDigits(date.getDayOfMonth(), 2);
+        return this;
+    }
+
+
+
+    public void endRow() throws IOException {
+        append('\n');
+        rowStarted = false;
+    }
+
+
+
+    /**
+     * writes a complete preformatted line such as the header
+     */
+    public void line(String line) throws IOException {
+        append(line);
+        append('\n');
+        rowStarted = false;
+    }
+
+
+
+    @Override
+    public void flush() throws IOException {
+        if (length > 0) {
+            out.write(buffer, 0, length);
+            length = 0;
+        }
+        out.flush();
+    }
+
+
+
+
+
+    private void separate() throws IOException {
+        if (rowStarted) {
+            append(',');
+        }
+        rowStarted = true;
+    }
+
+
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+
+    private void append(char c) throws IOException {
+        if (length == buffer.length) {
+            drain();
+        }
+        buffer[length++] = c;
+    }
+
+
+
+    private void append(String value) throws IOException {
+        int offset = 0;
+        int remaining = value.length();
+        while (remaining > 0) {
+            if (length == buffer.length) {
+                drain();
+            }
+            int count = Math.min(remaining, buffer.length - length);
+            value.getChars(offset, offset + count, buffer, length);
+            length += count;
+            offset += count;
+            remaining -= count;
+        }
+    }
+
+
+
+    private void append(char[] chars, int count) throws IOException {
+        ensureCapacity(count);
+        System.arraycopy(chars, 0, buffer, length, count);
+        length += count;
+    }
+
+
+
+    private void ensureCapacity(int count) throws IOException {
+        if (buffer.length - length < count) {
+            drain();
+        }
+    }
+
+
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, length);
+        length = 0;
+    }
+
+
+
+    private void putDigits(int value, int width) {
+        for (int i = length + width - 1; i >= length; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        length += width;
+    }
+
+
+
+    private static int digitCount(int value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,412 @@
+package util;
+
+import entity.*;
+import entity.enums.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+
+
+/**
+ * class generates large synthetic datasets for load testing.
+ *
+ * users, internships, applications and withdrawal requests are written through FileManager to its
+ * data directory, data/ under the working directory unless -Dipms.dataDir points elsewhere, so the
+ * files are in exactly the format the loaders read. write() refuses to touch a directory that already
+ * holds data files or an application log unless --overwrite true is given, overwriting replaces the
+ * data files and discards the application log
+ *
+ * the data is referentially consistent and follows the SystemConstants limits: every rep owns at most
+ * MAX_INTERNSHIPS_PER_REP internships, students only apply to approved internships they are eligible for,
+ * a student who accepted a placement keeps only that application and filled slots match the accepted placements
+ *
+ * usage: DatasetGenerator [--students n] [--internships n] [--staff n] [--seed n]
+ *        [--majors name=weight,...] [--years 1=w,2=w,...] [--levels Basic=w,...]
+ *        [--internship-statuses Approved=w,...] [--application-statuses Pending=w,...]
+ *        [--applications-per-student 0=w,1=w,...] [--max-slots n]
+ *        [--acceptance-rate r] [--withdrawal-rate r] [--withdrawal-statuses Pending=w,...]
+ *        [--overwrite true|false]
+ *
+ */
+
+
+
+public class DatasetGenerator {
+
+    private int studentCount = 10_000;
+    private int internshipCount = 2_000;
+    private int staffCount = 5;
+    private int maxSlots = SystemConstants.MAX_SLOTS_PER_INTERNSHIP;
+    private long seed = 2002L;
+    private double acceptanceRate = 0.5;
+    private double withdrawalRate = 0.05;
+    private boolean overwrite = false;
+
+    private WeightedChoice<String> majors = WeightedChoice.parse(
+        "Computer Science=4,Computer Engineering=3,Data Science & AI=2,Information Engineering & Media=1", Function.identity());
+    private WeightedChoice<Integer> years = WeightedChoice.parse("1=1,2=1,3=1,4=1", Integer::valueOf);
+    private WeightedChoice<InternshipLevel> levels = WeightedChoice.parse(
+        "Basic=5,Intermediate=3,Advanced=2", InternshipLevel::valueOf);
+    private WeightedChoice<InternshipStatus> internshipStatuses = WeightedChoice.parse(
+        "Approved=7,Pending=2,Rejected=1", InternshipStatus::valueOf);
+    private WeightedChoice<ApplicationStatus> applicationStatuses = WeightedChoice.parse(
+        "Pending=5,Successful=3,Unsuccessful=2", ApplicationStatus::valueOf);
+    private WeightedChoice<Integer> applicationsPerStudent = WeightedChoice.parse("0=1,1=2,2=3,3=4", Integer::valueOf);
+    private WeightedChoice<WithdrawalStatus> withdrawalStatuses = WeightedChoice.parse(
+        "Pending=5,Approved=3,Rejected=2", WithdrawalStatus::valueOf);
+
+    private final Map<String, User> users = new HashMap<>();
+    private final Map<String, Internship> internships = new HashMap<>();
+    private final Map<String, Application> applications = new HashMap<>();
+    private final Map<String, WithdrawalRequest> withdrawals = new HashMap<>();
+
+    private Random random;
+    private LocalDate today;
+    private int nextApplicationId;
+    private int nextWithdrawalId;
+
+
+
+
+
+    public static void main(String[] args) throws IOException {
+        DatasetGenerator generator = new DatasetGenerator();
+
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            generator.set(args[i], args[i + 1]);
+        }
+
+        generator.checkWritable();
+        long startTime = System.nanoTime();
+        generator.generate();
+        generator.write();
+
+        System.out.printf("Generated %d users, %d internships, %d applications and %d withdrawal requests in %d ms%n",
+            generator.users.size(), generator.internships.size(), generator.applications.size(),
+            generator.withdrawals.size(), (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+
+
+    public void set(String option, String value) {
+        switch (option) {
+            case "--students":
+                studentCount = nonNegative(option, Integer.parseInt(value));
+                break;
+            case "--internships":
+                internshipCount = nonNegative(option, Integer.parseInt(value));
+                break;
+            case "--staff":
+                staffCount = nonNegative(option, Integer.parseInt(value));
+                break;
+            case "--seed":
+                seed = Long.parseLong(value);
+                break;
+            case "--max-slots":
+                maxSlots = Integer.parseInt(value);
+                if (maxSlots < 1 || maxSlots > SystemConstants.MAX_SLOTS_PER_INTERNSHIP) {
+                    throw new IllegalArgumentException("--max-slots must be between 1 and " + SystemConstants.MAX_SLOTS_PER_INTERNSHIP);
+                }
+                break;
+            case "--acceptance-rate":
+                acceptanceRate = rate(option, value);
+                break;
+            case "--withdrawal-rate":
+                withdrawalRate = rate(option, value);
+                break;
+            case "--majors":
+                majors = WeightedChoice.parse(value, Function.identity());
+                break;
+            case "--years":
+                years = WeightedChoice.parse(value, Integer::valueOf);
+                for (int year : years.values) {
+                    if (year < 1 || year > 4) {
+                        throw new IllegalArgumentException("Year of study must be between 1 and 4");
+                    }
+                }
+                break;
+            case "--levels":
+                levels = WeightedChoice.parse(value, InternshipLevel::valueOf);
+                break;
+            case "--internship-statuses":
+                internshipStatuses = WeightedChoice.parse(value, InternshipStatus::valueOf);
+                if (internshipStatuses.values.contains(InternshipStatus.Filled)) {
+                    throw new IllegalArgumentException("Filled is derived from accepted placements and cannot be weighted");
+                }
+                break;
+            case "--application-statuses":
+                applicationStatuses = WeightedChoice.parse(value, ApplicationStatus::valueOf);
+                if (applicationStatuses.values.contains(ApplicationStatus.Withdrawn)) {
+                    throw new IllegalArgumentException("Withdrawn applications are removed and cannot be weighted");
+                }
+                break;
+            case "--applications-per-student":
+                applicationsPerStudent = WeightedChoice.parse(value, Integer::valueOf);
+                for (int count : applicationsPerStudent.values) {
+                    if (count < 0 || count > SystemConstants.MAX_APPLICATIONS_PER_STUDENT) {
+                        throw new IllegalArgumentException("Applications per student must be between 0 and "
+                            + SystemConstants.MAX_APPLICATIONS_PER_STUDENT);
+                    }
+                }
+                break;
+            case "--overwrite":
+                if (!"true".equals(value) && !"false".equals(value)) {
+                    throw new IllegalArgumentException("--overwrite must be true or false");
+                }
+                overwrite = Boolean.parseBoolean(value);
+                break;
+            case "--withdrawal-statuses":
+                withdrawalStatuses = WeightedChoice.parse(value, WithdrawalStatus::valueOf);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option: " + option);
+        }
+    }
+
+
+
+    public void generate() {
+        random = new Random(seed);
+        today = LocalDate.now();
+        users.clear();
+        internships.clear();
+        applications.clear();
+        withdrawals.clear();
+        nextApplicationId = 1;
+        nextWithdrawalId = 1;
+
+        generateStaff();
+        Map<String, List<Internship>> openByMajor = generateInternships();
+        Map<String, List<Internship>> basicByMajor = new HashMap<>();
+        for (Map.Entry<String, List<Internship>> entry : openByMajor.entrySet()) {
+            List<Internship> basic = new ArrayList<>();
+            for (Internship internship : entry.getValue()) {
+                if (internship.getLevel() == InternshipLevel.Basic) {
+                    basic.add(internship);
+                }
+            }
+            basicByMajor.put(entry.getKey(), basic);
+        }
+
+        for (int i = 0; i < studentCount; i++) {
+            Student student = new Student(IdCodec.STUDENT.render((i + 1) * 26L + i % 26),
+                "Student " + (i + 1), "password", years.next(random), majors.next(random));
+            users.put(student.getUserId(), student);
+
+            boolean basicOnly = student.getYearOfStudy() <= SystemConstants.BASIC_LEVEL_MAX_YEAR;
+            List<Internship> eligible = (basicOnly ? basicByMajor : openByMajor)
+                .getOrDefault(student.getMajor(), Collections.emptyList());
+            generateApplications(student, eligible);
+        }
+    }
+
+
+
+    public void write() throws IOException {
+        checkWritable();
+        FileManager.rotateApplicationLog();
+        FileManager.clearRotatedApplicationLog();
+        FileManager.saveUsers(users);
+        FileManager.saveInternships(internships);
+        FileManager.saveApplications(applications);
+        FileManager.saveWithdrawalRequests(withdrawals);
+    }
+
+
+
+
+
+    /**
+     * throws when the data directory already holds data files and --overwrite was not given
+     */
+    private void checkWritable() {
+        List<Path> existing = FileManager.existingDataFiles();
+        if (!overwrite && !existing.isEmpty()) {
+            throw new IllegalStateException("Data files already exist in " + FileManager.getDataDirectory()
+                + " " + existing.stream().map(path -> path.getFileName().toString()).toList()
+                + ", pass --overwrite true to replace them");
+        }
+    }
+
+
+
+    private void generateStaff() {
+        for (int i = 0; i < staffCount; i++) {
+            CareerCenterStaff staff = new CareerCenterStaff(String.format("staff%03d", i + 1),
+                "Staff " + (i + 1), "password", "CCDS");
+            users.put(staff.getUserId(), staff);
+        }
+    }
+
+
+
+    /**
+     * creates the internships and their reps, returns the approved internships grouped by major
+     */
+    private Map<String, List<Internship>> generateInternships() {
+        Map<String, List<Internship>> openByMajor = new HashMap<>();
+        CompanyRepresentative rep = null;
+
+        for (int i = 0; i < internshipCount; i++) {
+            if (i % SystemConstants.MAX_INTERNSHIPS_PER_REP == 0) {
+                int company = i / SystemConstants.MAX_INTERNSHIPS_PER_REP + 1;
+                rep = new CompanyRepresentative("rep" + company + "@company" + company + ".com",
+                    "Representative " + company, "password", "Company " + company, "HR", "Recruiter");
+                rep.setApproved(true);
+                users.put(rep.getUserId(), rep);
+            }
+
+            LocalDate openingDate = today.minusDays(random.nextInt(60));
+            Internship internship = new Internship(IdCodec.INTERNSHIP.render(i + 1),
+                "Internship " + (i + 1), "Synthetic internship, generated for load testing",
+                levels.next(random), majors.next(random), openingDate, openingDate.plusDays(30 + random.nextInt(120)),
+                rep.getCompanyName(), rep.getUserId(), 1 + random.nextInt(maxSlots));
+
+            InternshipStatus status = internshipStatuses.next(random);
+            internship.setStatus(status);
+            internship.setVisible(status == InternshipStatus.Approved);
+            internships.put(internship.getInternshipId(), internship);
+            rep.addCreatedInternship(internship.getInternshipId());
+
+            if (status == InternshipStatus.Approved) {
+                openByMajor.computeIfAbsent(internship.getPreferredMajor(), k -> new ArrayList<>()).add(internship);
+            }
+        }
+        return openByMajor;
+    }
+
+
+
+    private void generateApplications(Student student, List<Internship> eligible) {
+        int count = Math.min(applicationsPerStudent.next(random), eligible.size());
+        List<Application> submitted = new ArrayList<>(count);
+        Set<Internship> chosen = new HashSet<>();
+
+        while (submitted.size() < count) {
+            Internship internship = eligible.get(random.nextInt(eligible.size()));
+            if (chosen.add(internship)) {
+                Application application = new Application(IdCodec.APPLICATION.render(nextApplicationId++),
+                    student.getUserId(), internship.getInternshipId(), today.minusDays(random.nextInt(30)));
+                application.setStatus(applicationStatuses.next(random));
+                submitted.add(application);
+            }
+        }
+
+        Application accepted = null;
+        for (Application application : submitted) {
+            if (application.getStatus() == ApplicationStatus.Successful && random.nextDouble() < acceptanceRate
+                    && internships.get(application.getInternshipId()).tryReserveSlot()) {
+                accepted = application;
+                break;
+            }
+        }
+        if (accepted != null) {
+            submitted = Collections.singletonList(accepted);
+        }
+
+        for (Application application : submitted) {
+            boolean isAccepted = application == accepted;
+            WithdrawalRequest request = random.nextDouble() < withdrawalRate ? newWithdrawal(application, isAccepted) : null;
+
+            if (request != null && request.getStatus() == WithdrawalStatus.Approved) {
+                withdrawals.put(request.getRequestId(), request);
+                if (isAccepted) {
+                    internships.get(application.getInternshipId()).decrementFilledSlots();
+                }
+                continue;
+            }
+            if (request != null) {
+                withdrawals.put(request.getRequestId(), request);
+            }
+
+            applications.put(application.getApplicationId(), application);
+            student.addAppliedInternship(application.getInternshipId());
+            if (isAccepted) {
+                student.setAcceptedInternshipId(application.getInternshipId());
+            }
+        }
+    }
+
+
+
+    private WithdrawalRequest newWithdrawal(Application application, boolean afterPlacement) {
+        LocalDate requestDate = application.getApplicationDate().plusDays(random.nextInt(10));
+        WithdrawalRequest request = new WithdrawalRequest(IdCodec.WITHDRAWAL.render(nextWithdrawalId++),
+            application.getApplicationId(), application.getStudentId(), application.getInternshipId(),
+            afterPlacement, requestDate.isAfter(today) ? today : requestDate, "Changed plans, \"synthetic\" request");
+        request.setStatus(withdrawalStatuses.next(random));
+        return request;
+    }
+
+
+
+    private static int nonNegative(String option, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException(option + " must not be negative");
+        }
+        return value;
+    }
+
+
+
+    private static double rate(String option, String value) {
+        double rate = Double.parseDouble(value);
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException(option + " must be between 0 and 1");
+        }
+        return rate;
+    }
+
+
+
+
+
+    /**
+     * picks values with probability proportional to their weights, parsed from "value=weight,..."
+     */
+    private static final class WeightedChoice<T> {
+        private final List<T> values = new ArrayList<>();
+        private double[] cumulativeWeights = new double[0];
+
+        private static <T> WeightedChoice<T> parse(String spec, Function<String, T> parser) {
+            WeightedChoice<T> choice = new WeightedChoice<>();
+            double total = 0;
+
+            for (String entry : spec.split(",")) {
+                int separator = entry.lastIndexOf('=');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("Expected value=weight but got: " + entry);
+                }
+                double weight = Double.parseDouble(entry.substring(separator + 1).trim());
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Weights must not be negative: " + entry);
+                }
+                total += weight;
+                choice.values.add(parser.apply(entry.substring(0, separator).trim()));
+                choice.cumulativeWeights = Arrays.copyOf(choice.cumulativeWeights, choice.values.size());
+                choice.cumulativeWeights[choice.values.size() - 1] = total;
+            }
+
+            if (total <= 0) {
+                throw new IllegalArgumentException("At least one weight must be positive: " + spec);
+            }
+            return choice;
+        }
+
+        private T next(Random random) {
+            double target = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (target < cumulativeWeights[i]) {
+                    return values.get(i);
+                }
+            }
+            return values.get(values.size() - 1);
+        }
+    }
+}
@@ -5,16 +5,36 @@ import entity.enums.*;
 
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.zip.CRC32;
 
 
 /**
  * class handles the file manager for the internship placement management system.
  * 
+ * data files are written to a sibling temp file, forced to disk and moved into place,
+ * an optional checksum footer lets the loaders reject torn files
+ * 
+ * with binary snapshots enabled every save also writes a .bin snapshot and loads prefer it
+ * while it is at least as new as the csv, the csv stays the interchange format
+ * 
+ * data files live in data/ under the working directory unless -Dipms.dataDir or setDataDirectory
+ * points them elsewhere
+ * 
+ * application mutations are queued as log records and appended to applications.log through
+ * one channel that stays open, syncApplicationLog forces them to disk before it returns
+ * 
  * 
  * 
  */
@@ -23,35 +43,93 @@ import java.util.*;
 
  public class FileManager {
     private static final String RESOURCES_PATH = "src/resources/";
-    private static final String DATA_PATH = "data/";
     private static final String STUDENTS_FILE = RESOURCES_PATH + "sample_student_list.csv";
     private static final String STAFF_FILE = RESOURCES_PATH + "sample_staff_list.csv";
-    private static final String USERS_FILE = DATA_PATH + "users.csv";
-    private static final String INTERNSHIPS_FILE = DATA_PATH + "internships.csv";
-    private static final String APPLICATIONS_FILE = DATA_PATH + "applications.csv";
-    private static final String WITHDRAWAL_REQUESTS_FILE = DATA_PATH + "withdrawal_requests.csv";
+    private static final String USERS_FILE = "users.csv";
+    private static final String INTERNSHIPS_FILE = "internships.csv";
+    private static final String APPLICATIONS_FILE = "applications.csv";
+    private static final String WITHDRAWAL_REQUESTS_FILE = "withdrawal_requests.csv";
+    private static final String APPLICATIONS_LOG_FILE = "applications.log";
+    private static final String ROTATED_APPLICATIONS_LOG_FILE = "applications.log.compacting";
+    private static final String USERS_SNAPSHOT_FILE = "users.bin";
+    private static final String INTERNSHIPS_SNAPSHOT_FILE = "internships.bin";
+    private static final String APPLICATIONS_SNAPSHOT_FILE = "applications.bin";
+    private static final String WITHDRAWAL_REQUESTS_SNAPSHOT_FILE = "withdrawal_requests.bin";
+
+    private static final String CHECKSUM_PREFIX = "#checksum=";
+
+    private static volatile Path dataDirectory = Paths.get(System.getProperty("ipms.dataDir", "data"));
+
+    private static volatile boolean checksumFooterEnabled = true;
+    private static volatile boolean binarySnapshotsEnabled = Boolean.getBoolean("ipms.binarySnapshots");
+
+    private static final String LOG_PUT = "PUT";
+    private static final String LOG_DELETE = "DEL";
+
+    private static final Object LOG_QUEUE_LOCK = new Object();
+    private static final Object LOG_WRITE_LOCK = new Object();
+    private static final StringBuilder queuedLogRecords = new StringBuilder();
+    private static long queuedLogSequence = 0;
+    private static volatile long durableLogSequence = 0;
+    private static FileChannel logChannel;
     
    
 
 
 
+    public static Path getDataDirectory() {
+        return dataDirectory;
+    }
+
+    /**
+     * points every data file at another directory, e.g. a scratch directory for benchmarks.
+     * records still queued for the old application log are written there first
+     */
+    public static void setDataDirectory(Path directory) throws IOException {
+        synchronized (LOG_WRITE_LOCK) {
+            writeQueuedLogRecords();
+            closeLogChannel();
+            dataDirectory = directory;
+        }
+    }
+
+    private static Path dataFile(String fileName) {
+        return dataDirectory.resolve(fileName);
+    }
+
+    /**
+     * the data, snapshot and log files that already exist in the data directory
+     */
+    public static List<Path> existingDataFiles() {
+        List<Path> existing = new ArrayList<>();
+        for (String fileName : new String[] {USERS_FILE, INTERNSHIPS_FILE, APPLICATIONS_FILE,
+                WITHDRAWAL_REQUESTS_FILE, APPLICATIONS_LOG_FILE, ROTATED_APPLICATIONS_LOG_FILE,
+                USERS_SNAPSHOT_FILE, INTERNSHIPS_SNAPSHOT_FILE, APPLICATIONS_SNAPSHOT_FILE,
+                WITHDRAWAL_REQUESTS_SNAPSHOT_FILE}) {
+            Path path = dataFile(fileName);
+            if (Files.exists(path)) {
+                existing.add(path);
+            }
+        }
+        return existing;
+    }
+
+
+
     public static List<Student> loadStudents() throws IOException {
         List<Student> students = new ArrayList<>();
         Path path = Paths.get(STUDENTS_FILE);
         
      
-        try (BufferedReader reader = Files.newBufferedReader(path)) {
-            String line = reader.readLine(); 
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-
-                String[] parts = line.split(",");
-
-                if (parts.length >= 4) {
-                    String userId = parts[0].trim();
-                    String name = parts[1].trim();
-                    String major = parts[2].trim();
-                    int yearOfStudy = Integer.parseInt(parts[3].trim());
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(path), STUDENTS_FILE)) {
+            reader.skipHeader();
+            while (reader.next()) {
+
+                if (reader.size() >= 4) {
+                    String userId = reader.getTrimmed(0);
+                    String name = reader.getTrimmed(1);
+                    String major = MajorDictionary.intern(reader.getTrimmed(2));
+                    int yearOfStudy = reader.getInt(3);
         
                     students.add(new Student(userId, name, "password", yearOfStudy, major));
 
@@ -77,19 +155,16 @@ import java.util.*;
         
       
         
-        try (BufferedReader reader = Files.newBufferedReader(path)) {
-            String line = reader.readLine(); 
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(path), STAFF_FILE)) {
+            reader.skipHeader();
 
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
+            while (reader.next()) {
 
-                String[] parts = line.split(",");
-
-                if (parts.length >= 4) {
-                    String userId = parts[0].trim();
-                    String name = parts[1].trim();
+                if (reader.size() >= 4) {
+                    String userId = reader.getTrimmed(0);
+                    String name = reader.getTrimmed(1);
                    
-                    String department = parts[3].trim();
+                    String department = reader.getTrimmed(3);
                     staff.add(new CareerCenterStaff(userId, name, "password", department));
                 }
             }
@@ -107,36 +182,46 @@ import java.util.*;
 
 
     public static void saveUsers(Map<String, User> users) throws IOException {
-        ensureDirectoryExists(DATA_PATH);
-        Path path = Paths.get(USERS_FILE);
+        ensureDirectoryExists(dataDirectory);
+        Path path = dataFile(USERS_FILE);
         
-        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
-            writer.write("UserType,UserID,Name,Password,AdditionalInfo\n");
+        writeAtomically(path, writer -> {
+            writer.line("UserType,UserID,Name,Password,AdditionalInfo");
 
             for (User user : users.values()) {
-                String type = user.getUserRole();
-                String additionalInfo = "";
+                writer.field(user.getUserRole())
+                    .field(user.getUserId())
+                    .field(user.getName())
+                    .field(user.getPassword());
                 
                 if (user instanceof Student) {
                     Student s = (Student) user;
-                    additionalInfo = s.getYearOfStudy() + "," + s.getMajor();
+                    writer.field(s.getYearOfStudy()).field(s.getMajor());
                 } 
                 
                 else if (user instanceof CompanyRepresentative) {
                     CompanyRepresentative cr = (CompanyRepresentative) user;
-                    additionalInfo = cr.getCompanyName() + "," + cr.getDepartment() + "," + 
-                                   cr.getPosition() + "," + cr.isApproved();
+                    writer.field(cr.getCompanyName())
+                        .field(cr.getDepartment())
+                        .field(cr.getPosition())
+                        .field(cr.isApproved());
                 } 
                 
                 else if (user instanceof CareerCenterStaff) {
                     CareerCenterStaff ccs = (CareerCenterStaff) user;
-                    additionalInfo = ccs.getDepartment();
+                    writer.field(ccs.getDepartment());
                 }
-                
-                writer.write(String.format("%s,%s,%s,%s,%s\n", 
-                    type, user.getUserId(), user.getName(), user.getPassword(), additionalInfo));
 
+                else {
+                    writer.field("");
+                }
+                
+                writer.endRow();
             }
+        });
+
+        if (binarySnapshotsEnabled) {
+            BinarySnapshot.writeUsers(dataFile(USERS_SNAPSHOT_FILE), users);
         }
     }
     
@@ -147,7 +232,7 @@ import java.util.*;
 
     public static Map<String, User> loadUsers() throws IOException {
         Map<String, User> users = new HashMap<>();
-        Path path = Paths.get(USERS_FILE);
+        Path path = dataFile(USERS_FILE);
         
         if (!Files.exists(path)) {
            
@@ -165,41 +250,42 @@ import java.util.*;
             saveUsers(users);
             return users;
         }
-        
-        try (BufferedReader reader = Files.newBufferedReader(path)) {
-            String line = reader.readLine(); // Skip header
-            while ((line = reader.readLine()) != null) {
 
-                if (line.trim().isEmpty()) continue;
-                String[] parts = line.split(",");
-
-
-                if (parts.length >= 4) {
-                    String type = parts[0].trim();
-                    String userId = parts[1].trim();
-                    String name = parts[2].trim();
-                    String password = parts[3].trim();
+        Map<String, User> snapshot = loadSnapshot(path, dataFile(USERS_SNAPSHOT_FILE), BinarySnapshot::readUsers);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        
+        try (CsvReader reader = openVerifiedReader(path)) {
+            reader.skipHeader();
+            while (reader.next()) {
+
+                if (reader.size() >= 4) {
+                    String type = reader.getTrimmed(0);
+                    String userId = reader.getTrimmed(1);
+                    String name = reader.getTrimmed(2);
+                    String password = reader.getTrimmed(3);
                     
-                    if ("Student".equals(type) && parts.length >= 6) {
-                        int yearOfStudy = Integer.parseInt(parts[4].trim());
-                        String major = parts[5].trim();
+                    if ("Student".equals(type) && reader.size() >= 6) {
+                        int yearOfStudy = reader.getInt(4);
+                        String major = MajorDictionary.intern(reader.getTrimmed(5));
                         Student student = new Student(userId, name, password, yearOfStudy, major);
                         users.put(userId, student);
                     } 
                     
-                    else if ("CompanyRepresentative".equals(type) && parts.length >= 7) {
-                        String companyName = parts[4].trim();
-                        String department = parts[5].trim();
-                        String position = parts[6].trim();
-                        boolean approved = parts.length >= 8 && Boolean.parseBoolean(parts[7].trim());
+                    else if ("CompanyRepresentative".equals(type) && reader.size() >= 7) {
+                        String companyName = reader.getTrimmed(4);
+                        String department = reader.getTrimmed(5);
+                        String position = reader.getTrimmed(6);
+                        boolean approved = reader.size() >= 8 && reader.getBoolean(7);
                         CompanyRepresentative cr = new CompanyRepresentative(userId, name, password, 
                                                                              companyName, department, position);
                         cr.setApproved(approved);
                         users.put(userId, cr);
                     } 
                     
-                    else if ("CareerCenterStaff".equals(type) && parts.length >= 5) {
-                        String department = parts[4].trim();
+                    else if ("CareerCenterStaff".equals(type) && reader.size() >= 5) {
+                        String department = reader.getTrimmed(4);
                         users.put(userId, new CareerCenterStaff(userId, name, password, department));
                     }
                 }
@@ -216,33 +302,34 @@ import java.util.*;
 
     
     public static void saveInternships(Map<String, Internship> internships) throws IOException {
-        ensureDirectoryExists(DATA_PATH);
-        Path path = Paths.get(INTERNSHIPS_FILE);
+        ensureDirectoryExists(dataDirectory);
+        Path path = dataFile(INTERNSHIPS_FILE);
         
-        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+        writeAtomically(path, writer -> {
 
-            writer.write("InternshipID,Title,Description,Level,PreferredMajor,OpeningDate,ClosingDate,Status," +
-                        "CompanyName,CompanyRepID,TotalSlots,FilledSlots,Visible\n");
+            writer.line("InternshipID,Title,Description,Level,PreferredMajor,OpeningDate,ClosingDate,Status," +
+                        "CompanyName,CompanyRepID,TotalSlots,FilledSlots,Visible");
 
             for (Internship internship : internships.values()) {
-                writer.write(String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%d,%d,%s\n",
-
-                    internship.getInternshipId(),
-                    escapeCSV(internship.getTitle()),
-                    escapeCSV(internship.getDescription()),
-                    internship.getLevel(),
-                    internship.getPreferredMajor(),
-                    DateUtils.formatDate(internship.getOpeningDate()),
-                    DateUtils.formatDate(internship.getClosingDate()),
-                    internship.getStatus(),
-                    escapeCSV(internship.getCompanyName()),
-                    internship.getCompanyRepId(),
-                    internship.getTotalSlots(),
-                    internship.getFilledSlots(),
-                    internship.isVisible()
-
-                ));
+                writer.field(internship.getInternshipId())
+                    .escapedField(internship.getTitle())
+                    .escapedField(internship.getDescription())
+                    .field(internship.getLevel())
+                    .field(internship.getPreferredMajor())
+                    .field(internship.getOpeningDate())
+                    .field(internship.getClosingDate())
+                    .field(internship.getStatus())
+                    .escapedField(internship.getCompanyName())
+                    .field(internship.getCompanyRepId())
+                    .field(internship.getTotalSlots())
+                    .field(internship.getFilledSlots())
+                    .field(internship.isVisible())
+                    .endRow();
             }
+        });
+
+        if (binarySnapshotsEnabled) {
+            BinarySnapshot.writeInternships(dataFile(INTERNSHIPS_SNAPSHOT_FILE), internships);
         }
     }
     
@@ -252,40 +339,45 @@ import java.util.*;
 
     public static Map<String, Internship> loadInternships() throws IOException {
         Map<String, Internship> internships = new HashMap<>();
-        Path path = Paths.get(INTERNSHIPS_FILE);
+        Path path = dataFile(INTERNSHIPS_FILE);
         
         if (!Files.exists(path)) {
             return internships;
         }
+
+        Map<String, Internship> snapshot = loadSnapshot(path, dataFile(INTERNSHIPS_SNAPSHOT_FILE), BinarySnapshot::readInternships);
+        if (snapshot != null) {
+            return snapshot;
+        }
         
-        try (BufferedReader reader = Files.newBufferedReader(path)) {
-            String line = reader.readLine(); 
+        InternshipLevel[] levels = InternshipLevel.values();
+        InternshipStatus[] statuses = InternshipStatus.values();
+
+        try (CsvReader reader = openVerifiedReader(path)) {
+            reader.skipHeader();
             
-            while ((line = reader.readLine()) != null) {
-
-                if (line.trim().isEmpty()) continue;
-                String[] parts = parseCSVLine(line);
-
-                if (parts.length >= 13) {
-
-                    String internshipId = parts[0];
-                    String title = parts[1];
-                    String description = parts[2];
-                    InternshipLevel level = InternshipLevel.valueOf(parts[3]);
-                    String preferredMajor = parts[4];
-                    LocalDate openingDate = DateUtils.parseDate(parts[5]);
-                    LocalDate closingDate = DateUtils.parseDate(parts[6]);
-                    InternshipStatus status =  InternshipStatus.valueOf(parts[7]);
-                    String companyName = parts[8];
-                    String companyRepId = parts[9];
-                    int totalSlots = Integer.parseInt(parts[10]);
-                    int filledSlots = Integer.parseInt(parts[11]);
-                    boolean visible = Boolean.parseBoolean(parts[12]);
+            while (reader.next()) {
+
+                if (reader.size() >= 13) {
+
+                    String internshipId = reader.get(0);
+                    String title = reader.get(1);
+                    String description = reader.get(2);
+                    InternshipLevel level = reader.getEnum(3, levels);
+                    String preferredMajor = MajorDictionary.intern(reader.get(4));
+                    LocalDate openingDate = reader.getDate(5);
+                    LocalDate closingDate = reader.getDate(6);
+                    InternshipStatus status = reader.getEnum(7, statuses);
+                    String companyName = reader.get(8);
+                    String companyRepId = reader.get(9);
+                    int totalSlots = reader.getInt(10);
+                    int filledSlots = reader.getInt(11);
+                    boolean visible = reader.getBoolean(12);
                     
                     Internship internship = new Internship( internshipId, title, description, level, preferredMajor, openingDate, closingDate, companyName, companyRepId, totalSlots );
                     
                     internship.setStatus(status);
-                    while (internship.getFilledSlots() < filledSlots) {
+                    for (int slot = 0; slot < filledSlots; slot++) {
                         internship.incrementFilledSlots();
                     }
                     internship.setVisible(visible);
@@ -304,22 +396,24 @@ import java.util.*;
 
 
     public static void saveApplications(Map<String, Application> applications) throws IOException {
-        ensureDirectoryExists(DATA_PATH);
-        Path path = Paths.get(APPLICATIONS_FILE);
+        ensureDirectoryExists(dataDirectory);
+        Path path = dataFile(APPLICATIONS_FILE);
         
-        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
-            writer.write("ApplicationID,StudentID,InternshipID,Status,ApplicationDate\n");
+        writeAtomically(path, writer -> {
+            writer.line("ApplicationID,StudentID,InternshipID,Status,ApplicationDate");
 
             for (Application app : applications.values()) {
-                writer.write(String.format("%s,%s,%s,%s,%s\n",
-                    app.getApplicationId(),
-                    app.getStudentId(),
-                    app.getInternshipId(),
-                    app.getStatus(),
-                    DateUtils.formatDate(app.getApplicationDate())
-
-                ));
+                writer.field(app.getApplicationId())
+                    .field(app.getStudentId())
+                    .field(app.getInternshipId())
+                    .field(app.getStatus())
+                    .field(app.getApplicationDate())
+                    .endRow();
             }
+        });
+
+        if (binarySnapshotsEnabled) {
+            BinarySnapshot.writeApplications(dataFile(APPLICATIONS_SNAPSHOT_FILE), applications);
         }
     }
     
@@ -330,26 +424,43 @@ import java.util.*;
 
     public static Map<String, Application> loadApplications() throws IOException {
         Map<String, Application> applications = new HashMap<>();
-        Path path = Paths.get(APPLICATIONS_FILE);
-        
+        loadApplications(applications);
+        return applications;
+    }
+
+
+
+    /**
+     * replaces the map's contents with the saved applications, putting each row as it is read so
+     * a compact map never holds the whole file as Application objects at once
+     */
+    public static void loadApplications(Map<String, Application> applications) throws IOException {
+        applications.clear();
+        Path path = dataFile(APPLICATIONS_FILE);
+
         if (!Files.exists(path)) {
-            return applications;
+            return;
         }
-        
 
-        try (BufferedReader reader = Files.newBufferedReader(path)) {
-            String line = reader.readLine(); 
+        if (loadSnapshot(path, dataFile(APPLICATIONS_SNAPSHOT_FILE),
+                snapshot -> BinarySnapshot.readApplications(snapshot, applications)) != null) {
+            return;
+        }
+        applications.clear();
+
+        ApplicationStatus[] statuses = ApplicationStatus.values();
 
+        try (CsvReader reader = openVerifiedReader(path)) {
+            reader.skipHeader();
 
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) continue;
-                String[] parts = parseCSVLine(line);
-                if (parts.length >= 5) {
-                    String applicationId = parts[0].trim();
-                    String studentId = parts[1].trim();
-                    String internshipId = parts[2].trim();
-                    ApplicationStatus status = ApplicationStatus.valueOf(parts[3].trim());
-                    LocalDate applicationDate = DateUtils.parseDate(parts[4].trim());
+
+            while (reader.next()) {
+                if (reader.size() >= 5) {
+                    String applicationId = reader.getTrimmed(0);
+                    String studentId = reader.getTrimmed(1);
+                    String internshipId = reader.getTrimmed(2);
+                    ApplicationStatus status = reader.getEnum(3, statuses);
+                    LocalDate applicationDate = reader.getDate(4);
                     
                     Application app = new Application(applicationId, studentId, internshipId, applicationDate);
                     app.setStatus(status);
@@ -359,8 +470,201 @@ import java.util.*;
                 }
             }
         }
-        
-        return applications;
+    }
+    
+
+
+
+
+
+    /**
+     * queues a put record for the application and returns its sequence number, the record
+     * is only on disk once syncApplicationLog has been called with that number
+     */
+    public static long queueApplicationLog(Application app) {
+        StringBuilder record = new StringBuilder(64)
+            .append(LOG_PUT).append(',')
+            .append(app.getApplicationId()).append(',')
+            .append(app.getStudentId()).append(',')
+            .append(app.getInternshipId()).append(',')
+            .append(app.getStatus()).append(',')
+            .append(DateUtils.formatDate(app.getApplicationDate())).append('\n');
+        return queueApplicationLogRecord(record);
+    }
+
+
+
+    public static long queueApplicationRemovalLog(String applicationId) {
+        return queueApplicationLogRecord(new StringBuilder(16).append(LOG_DELETE).append(',').append(applicationId).append('\n'));
+    }
+
+
+
+    private static long queueApplicationLogRecord(CharSequence record) {
+        synchronized (LOG_QUEUE_LOCK) {
+            queuedLogRecords.append(record);
+            return ++queuedLogSequence;
+        }
+    }
+
+
+
+    /**
+     * makes every record queued up to the given sequence number durable: whatever is queued is
+     * appended to the log through one open channel and forced to disk. callers that queue while
+     * another one is forcing find their record already written when they get here, so concurrent
+     * mutations share one force
+     */
+    public static void syncApplicationLog(long sequence) throws IOException {
+        if (durableLogSequence >= sequence) {
+            return;
+        }
+        synchronized (LOG_WRITE_LOCK) {
+            if (durableLogSequence < sequence) {
+                writeQueuedLogRecords();
+            }
+        }
+    }
+
+
+
+    private static void writeQueuedLogRecords() throws IOException {
+        String records;
+        long sequence;
+        synchronized (LOG_QUEUE_LOCK) {
+            records = queuedLogRecords.toString();
+            sequence = queuedLogSequence;
+            queuedLogRecords.setLength(0);
+        }
+        if (records.isEmpty()) {
+            durableLogSequence = sequence;
+            return;
+        }
+
+        try {
+            if (logChannel == null) {
+                ensureDirectoryExists(dataDirectory);
+                logChannel = FileChannel.open(dataFile(APPLICATIONS_LOG_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            ByteBuffer buffer = StandardCharsets.UTF_8.encode(records);
+            while (buffer.hasRemaining()) {
+                logChannel.write(buffer);
+            }
+            logChannel.force(false);
+            durableLogSequence = sequence;
+        } catch (IOException e) {
+            synchronized (LOG_QUEUE_LOCK) {
+                queuedLogRecords.insert(0, records);
+            }
+            closeLogChannel();
+            throw e;
+        }
+    }
+
+
+
+    private static void closeLogChannel() {
+        if (logChannel != null) {
+            try {
+                logChannel.close();
+            } catch (IOException ignored) {
+            }
+            logChannel = null;
+        }
+    }
+
+
+
+
+    /**
+     * replays the application log on top of a loaded snapshot, a log left behind
+     * by an interrupted compaction is replayed first.
+     * 
+     * returns the number of records replayed, a torn last record is ignored
+     */
+    public static int replayApplicationLog(Map<String, Application> applications) throws IOException {
+        return replayApplicationLog(dataFile(ROTATED_APPLICATIONS_LOG_FILE), applications)
+            + replayApplicationLog(dataFile(APPLICATIONS_LOG_FILE), applications);
+    }
+
+
+
+    private static int replayApplicationLog(Path path, Map<String, Application> applications) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        int records = 0;
+        ApplicationStatus[] statuses = ApplicationStatus.values();
+
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(path), path.toString())) {
+            while (reader.next()) {
+
+                try {
+                    if (reader.fieldEquals(0, LOG_PUT) && reader.size() >= 6) {
+                        Application app = new Application(reader.get(1), reader.get(2), reader.get(3), reader.getDate(5));
+                        app.setStatus(reader.getEnum(4, statuses));
+                        applications.put(app.getApplicationId(), app);
+                        records++;
+                    }
+
+                    else if (reader.fieldEquals(0, LOG_DELETE) && reader.size() >= 2) {
+                        applications.remove(reader.get(1));
+                        records++;
+                    }
+                } catch (IllegalArgumentException ignored) {
+                }
+            }
+        }
+
+        return records;
+    }
+
+
+
+    /**
+     * moves the live application log aside before a compaction snapshot is written,
+     * records already rotated but not yet compacted are kept. records still queued
+     * are written to the live log first, they are covered by the snapshot
+     */
+    public static void rotateApplicationLog() throws IOException {
+        synchronized (LOG_WRITE_LOCK) {
+            writeQueuedLogRecords();
+            closeLogChannel();
+            moveLiveApplicationLog();
+        }
+    }
+
+
+
+    private static void moveLiveApplicationLog() throws IOException {
+        Path live = dataFile(APPLICATIONS_LOG_FILE);
+        if (!Files.exists(live)) {
+            return;
+        }
+
+        Path rotated = dataFile(ROTATED_APPLICATIONS_LOG_FILE);
+        if (!Files.exists(rotated)) {
+            Files.move(live, rotated);
+            return;
+        }
+
+        try (FileChannel from = FileChannel.open(live, StandardOpenOption.READ);
+             FileChannel to = FileChannel.open(rotated, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long size = from.size();
+            for (long position = 0; position < size; ) {
+                position += from.transferTo(position, size - position, to);
+            }
+            to.force(false);
+        }
+        Files.delete(live);
+    }
+
+
+
+    public static void clearRotatedApplicationLog() throws IOException {
+        Files.deleteIfExists(dataFile(ROTATED_APPLICATIONS_LOG_FILE));
     }
     
 
@@ -369,24 +673,27 @@ import java.util.*;
 
 
     public static void saveWithdrawalRequests(Map<String, WithdrawalRequest> requests) throws IOException {
-        ensureDirectoryExists(DATA_PATH);
-        Path path = Paths.get(WITHDRAWAL_REQUESTS_FILE);
+        ensureDirectoryExists(dataDirectory);
+        Path path = dataFile(WITHDRAWAL_REQUESTS_FILE);
         
-        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
-            writer.write("RequestID,ApplicationID,StudentID,InternshipID,Status,IsAfterPlacement,RequestDate,Reason\n");
+        writeAtomically(path, writer -> {
+            writer.line("RequestID,ApplicationID,StudentID,InternshipID,Status,IsAfterPlacement,RequestDate,Reason");
             
             for (WithdrawalRequest request : requests.values()) {
-                writer.write(String.format("%s,%s,%s,%s,%s,%s,%s,%s\n",
-                    request.getRequestId(),
-                    request.getApplicationId(),
-                    request.getStudentId(),
-                    request.getInternshipId(),
-                    request.getStatus(),
-                    request.isAfterPlacement(),
-                    DateUtils.formatDate(request.getRequestDate()),
-                    escapeCSV(request.getReason())
-                ));
+                writer.field(request.getRequestId())
+                    .field(request.getApplicationId())
+                    .field(request.getStudentId())
+                    .field(request.getInternshipId())
+                    .field(request.getStatus())
+                    .field(request.isAfterPlacement())
+                    .field(request.getRequestDate())
+                    .escapedField(request.getReason())
+                    .endRow();
             }
+        });
+
+        if (binarySnapshotsEnabled) {
+            BinarySnapshot.writeWithdrawalRequests(dataFile(WITHDRAWAL_REQUESTS_SNAPSHOT_FILE), requests);
         }
     }
     
@@ -398,29 +705,33 @@ import java.util.*;
 
     public static Map<String, WithdrawalRequest> loadWithdrawalRequests() throws IOException {
         Map<String, WithdrawalRequest> requests = new HashMap<>();
-        Path path = Paths.get(WITHDRAWAL_REQUESTS_FILE);
+        Path path = dataFile(WITHDRAWAL_REQUESTS_FILE);
         
         if (!Files.exists(path)) {
             return requests;
         }
+
+        Map<String, WithdrawalRequest> snapshot = loadSnapshot(path, dataFile(WITHDRAWAL_REQUESTS_SNAPSHOT_FILE), BinarySnapshot::readWithdrawalRequests);
+        if (snapshot != null) {
+            return snapshot;
+        }
         
-        try (BufferedReader reader = Files.newBufferedReader(path)) {
-            String line = reader.readLine(); // Skip header
-            while ((line = reader.readLine()) != null) {
-
-                if (line.trim().isEmpty()) continue;
-                String[] parts = parseCSVLine(line);
-
-                if (parts.length >= 8) {
-                    String requestId = parts[0].trim();
-                    String applicationId = parts[1].trim();
-                    String studentId = parts[2].trim();
-                    String internshipId = parts[3].trim();
+        WithdrawalStatus[] statuses = WithdrawalStatus.values();
+
+        try (CsvReader reader = openVerifiedReader(path)) {
+            reader.skipHeader();
+            while (reader.next()) {
+
+                if (reader.size() >= 8) {
+                    String requestId = reader.getTrimmed(0);
+                    String applicationId = reader.getTrimmed(1);
+                    String studentId = reader.getTrimmed(2);
+                    String internshipId = reader.getTrimmed(3);
                     
-                    WithdrawalStatus status = WithdrawalStatus.valueOf(parts[4].trim());
-                    boolean isAfterPlacement = Boolean.parseBoolean(parts[5].trim());
-                    LocalDate requestDate = DateUtils.parseDate(parts[6].trim());
-                    String reason = parts[7].trim();
+                    WithdrawalStatus status = reader.getEnum(4, statuses);
+                    boolean isAfterPlacement = reader.getBoolean(5);
+                    LocalDate requestDate = reader.getDate(6);
+                    String reason = reader.getTrimmed(7);
                     
                     WithdrawalRequest request = new WithdrawalRequest( requestId, applicationId, studentId, internshipId, isAfterPlacement, requestDate, reason );
                     
@@ -437,51 +748,158 @@ import java.util.*;
 
 
 
-    private static void ensureDirectoryExists(String dirPath) throws IOException {
-        Path path = Paths.get(dirPath);
+    public static boolean isChecksumFooterEnabled() {
+        return checksumFooterEnabled;
+    }
 
-        if (!Files.exists(path)) {
-            Files.createDirectories(path);
+
+
+    public static void setChecksumFooterEnabled(boolean enabled) {
+        checksumFooterEnabled = enabled;
+    }
+
+
+
+    public static boolean isBinarySnapshotsEnabled() {
+        return binarySnapshotsEnabled;
+    }
+
+
+
+    public static void setBinarySnapshotsEnabled(boolean enabled) {
+        binarySnapshotsEnabled = enabled;
+    }
+
+
+
+    private interface SnapshotReader<T> {
+        Map<String, T> read(Path path) throws IOException;
+    }
+
+
+
+    /**
+     * returns the snapshot contents when snapshots are enabled and the snapshot is no older
+     * than the csv, a stale or unreadable snapshot returns null so the csv is loaded instead
+     */
+    private static <T> Map<String, T> loadSnapshot(Path csvPath, Path snapshotPath, SnapshotReader<T> reader) {
+        if (!binarySnapshotsEnabled || !Files.exists(snapshotPath)) {
+            return null;
+        }
+        try {
+            if (Files.getLastModifiedTime(snapshotPath).compareTo(Files.getLastModifiedTime(csvPath)) < 0) {
+                return null;
+            }
+            return reader.read(snapshotPath);
+        } catch (IOException e) {
+            System.err.println("Ignoring snapshot " + snapshotPath + ": " + e.getMessage());
+            return null;
         }
     }
-    
 
-    private static String escapeCSV(String field) {
-        if (field == null) return "";
-        
-        if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
-            return "\"" + field.replace("\"", "\"\"") + "\"";
+
+
+    private interface RowWriter {
+        void write(CsvWriter writer) throws IOException;
+    }
+
+
+
+    private static void writeAtomically(Path path, RowWriter rows) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ChecksumWriter writer = new ChecksumWriter(
+                Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1));
+            CsvWriter rowWriter = new CsvWriter(writer);
+            rows.write(rowWriter);
+            rowWriter.flush();
+            if (checksumFooterEnabled) {
+                writer.writeFooter();
+            }
+            writer.flush();
+            channel.force(true);
         }
-        return field;
+
+        moveIntoPlace(temp, path);
     }
-    
 
 
-    private static String[] parseCSVLine(String line) {
-        List<String> result = new ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder current = new StringBuilder();
-        
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
 
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } 
-            
-            else if (c == ',' && !inQuotes) {
-                result.add(current.toString());
-                current = new StringBuilder();
-            } 
-            
-            else {
-                current.append(c);
+    static void moveIntoPlace(Path temp, Path path) throws IOException {
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+
+
+    private static CsvReader openVerifiedReader(Path path) throws IOException {
+        return new CsvReader(Files.newBufferedReader(path), path.toString(), CHECKSUM_PREFIX);
+    }
+
+
+
+    private static void updateChecksum(CRC32 crc, char c) {
+        crc.update(c >>> 8);
+        crc.update(c);
+    }
+
+
+
+    /**
+     * keeps a CRC32 over the UTF-16 code units of everything written,
+     * the footer line records it without being counted itself
+     */
+    private static final class ChecksumWriter extends FilterWriter {
+        private final CRC32 crc = new CRC32();
+
+        private ChecksumWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            updateChecksum(crc, (char) c);
+            out.write(c);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            for (int i = off; i < off + len; i++) {
+                updateChecksum(crc, cbuf[i]);
             }
+            out.write(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            for (int i = off; i < off + len; i++) {
+                updateChecksum(crc, str.charAt(i));
+            }
+            out.write(str, off, len);
+        }
+
+        private void writeFooter() throws IOException {
+            out.write(CHECKSUM_PREFIX + Long.toHexString(crc.getValue()) + "\n");
         }
-        result.add(current.toString());
-        
-        return result.toArray(new String[0]);
     }
+
+
+
+    private static void ensureDirectoryExists(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            Files.createDirectories(path);
+        }
+    }
+    
+
+    
+
+
     
     
 }
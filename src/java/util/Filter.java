@@ -8,7 +8,11 @@ import entity.enums.InternshipStatus;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.stream.Collectors;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 
 /**
@@ -18,6 +22,12 @@ import java.util.stream.Collectors;
  * 
  * It handles the filter for the internship placement management system.
  * 
+ * apply() runs the active criteria as one predicate chain in a single pass, the criterion that
+ * rejects the most of a small sample is tested first, sorting uses keys computed once per internship
+ * 
+ * apply(list, offset, limit) returns one page, only the first offset + limit matches are kept
+ * in a bounded heap so the rest of the matches are never sorted
+ * 
  * 
  * 
  */
@@ -32,6 +42,8 @@ import java.util.stream.Collectors;
     private LocalDate closingDateFilter;
     private String sortBy; 
 
+    private static final int SELECTIVITY_SAMPLE_SIZE = 64;
+
 
     
     public Filter() {
@@ -55,44 +67,303 @@ import java.util.stream.Collectors;
 
     
     public List<Internship> apply(List<Internship> internships) {
-        List<Internship> filtered = new ArrayList<>(internships);
-        
-        if (statusFilter != null) {
-            filtered = filtered.stream()
-                .filter(i -> i.getStatus() == statusFilter)
-                .collect(Collectors.toList());
+        List<Predicate<Internship>> criteria = orderBySelectivity(activeCriteria(), internships);
+        List<Internship> filtered = new ArrayList<>();
+
+        for (Internship internship : internships) {
+            if (matchesAll(criteria, internship)) {
+                filtered.add(internship);
+            }
         }
-        
-        if (majorFilter != null && !majorFilter.isEmpty()) {
-            filtered = filtered.stream()
-                .filter(i -> i.getPreferredMajor().equalsIgnoreCase(majorFilter))
-                .collect(Collectors.toList());
+
+        ToIntFunction<Internship> key = sortKey();
+        if ("alphabetical".equals(sortBy)) {
+            sortByTitle(filtered);
+        } else if (key != null) {
+            sortByKey(filtered, key);
         }
         
-        if (levelFilter != null) {
-            filtered = filtered.stream()
-                .filter(i -> i.getLevel() == levelFilter)
-                .collect(Collectors.toList());
+        return filtered;
+    }
+
+
+
+    /**
+     * returns the matches from offset up to offset + limit in sorted order, the same
+     * internships apply(list) would return at those positions
+     */
+    public Page<Internship> apply(List<Internship> internships, int offset, int limit) {
+        Page.checkRange(offset, limit);
+        List<Predicate<Internship>> criteria = orderBySelectivity(activeCriteria(), internships);
+        int window = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        ToIntFunction<Internship> key = sortKey();
+        List<Internship> top;
+        int total = 0;
+
+        if ("alphabetical".equals(sortBy)) {
+            PriorityQueue<TitleKey> heap = new PriorityQueue<>(Collections.reverseOrder());
+            for (int i = 0; i < internships.size(); i++) {
+                Internship internship = internships.get(i);
+                if (matchesAll(criteria, internship)) {
+                    total++;
+                    offerBounded(heap, new TitleKey(internship, i), window);
+                }
+            }
+            TitleKey[] keys = heap.toArray(new TitleKey[0]);
+            Arrays.sort(keys);
+            top = new ArrayList<>(keys.length);
+            for (TitleKey titleKey : keys) {
+                top.add(titleKey.internship);
+            }
         }
-        
-        if (closingDateFilter != null) {
-            filtered = filtered.stream()
-                .filter(i -> !i.getClosingDate().isAfter(closingDateFilter))
-                .collect(Collectors.toList());
+
+        else if (key != null) {
+            BoundedLongHeap heap = new BoundedLongHeap(window);
+            for (int i = 0; i < internships.size(); i++) {
+                Internship internship = internships.get(i);
+                if (matchesAll(criteria, internship)) {
+                    total++;
+                    heap.offer(((long) key.applyAsInt(internship) << 32) | i);
+                }
+            }
+            long[] packed = heap.toSortedArray();
+            top = new ArrayList<>(packed.length);
+            for (long entry : packed) {
+                top.add(internships.get((int) entry));
+            }
         }
-        
-        
 
+        else {
+            top = new ArrayList<>();
+            for (Internship internship : internships) {
+                if (matchesAll(criteria, internship)) {
+                    if (total >= offset && total < window) {
+                        top.add(internship);
+                    }
+                    total++;
+                }
+            }
+            return new Page<>(top, offset, total);
+        }
 
-        if ("alphabetical".equals(sortBy)) {
-            filtered.sort((a, b) -> a.getTitle().compareToIgnoreCase(b.getTitle()));
-        } else if ("closingDate".equals(sortBy)) {
-            filtered.sort((a, b) -> a.getClosingDate().compareTo(b.getClosingDate()));
+        int from = Math.min(offset, top.size());
+        return new Page<>(top.subList(from, top.size()), offset, total);
+    }
+
+
+
+    private ToIntFunction<Internship> sortKey() {
+        if ("closingDate".equals(sortBy)) {
+            return i -> i.getClosingDate() == null ? Integer.MAX_VALUE : (int) i.getClosingDate().toEpochDay();
         } else if ("level".equals(sortBy)) {
-            filtered.sort((a, b) -> a.getLevel().compareTo(b.getLevel()));
+            return i -> i.getLevel().ordinal();
+        }
+        return null;
+    }
+
+
+
+    private static <T extends Comparable<T>> void offerBounded(PriorityQueue<T> heap, T candidate, int bound) {
+        if (heap.size() < bound) {
+            heap.add(candidate);
+        } else if (bound > 0 && candidate.compareTo(heap.peek()) < 0) {
+            heap.poll();
+            heap.add(candidate);
+        }
+    }
+
+
+
+    private List<Predicate<Internship>> activeCriteria() {
+        List<Predicate<Internship>> criteria = new ArrayList<>(4);
+        InternshipStatus status = statusFilter;
+        String major = majorFilter;
+        InternshipLevel level = levelFilter;
+        LocalDate closingDate = closingDateFilter;
+
+        if (status != null) {
+            criteria.add(i -> i.getStatus() == status);
+        }
+        if (major != null && !major.isEmpty()) {
+            int code = MajorDictionary.code(major);
+            criteria.add(i -> MajorDictionary.codeOf(i) == code);
+        }
+        if (level != null) {
+            criteria.add(i -> i.getLevel() == level);
+        }
+        if (closingDate != null) {
+            long closingDay = closingDate.toEpochDay();
+            criteria.add(i -> i.getClosingDate() != null && i.getClosingDate().toEpochDay() <= closingDay);
+        }
+        return criteria;
+    }
+
+
+
+    /**
+     * counts how many of an evenly spaced sample each criterion lets through
+     * and orders the criteria so the one letting through the fewest runs first
+     */
+    private static List<Predicate<Internship>> orderBySelectivity(List<Predicate<Internship>> criteria,
+                                                                   List<Internship> internships) {
+        int size = internships.size();
+        if (criteria.size() < 2 || size < SELECTIVITY_SAMPLE_SIZE * 4) {
+            return criteria;
+        }
+
+        int step = size / SELECTIVITY_SAMPLE_SIZE;
+        long[] ranked = new long[criteria.size()];
+        for (int c = 0; c < criteria.size(); c++) {
+            Predicate<Internship> criterion = criteria.get(c);
+            long passed = 0;
+            for (int i = 0; i < size; i += step) {
+                if (criterion.test(internships.get(i))) {
+                    passed++;
+                }
+            }
+            ranked[c] = (passed << 32) | c;
+        }
+        Arrays.sort(ranked);
+
+        List<Predicate<Internship>> ordered = new ArrayList<>(criteria.size());
+        for (long rank : ranked) {
+            ordered.add(criteria.get((int) rank));
+        }
+        return ordered;
+    }
+
+
+
+    private static boolean matchesAll(List<Predicate<Internship>> criteria, Internship internship) {
+        for (int c = 0; c < criteria.size(); c++) {
+            if (!criteria.get(c).test(internship)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+
+    /**
+     * stable sort on one int key per internship, the key and position are packed into a long
+     */
+    private static void sortByKey(List<Internship> internships, ToIntFunction<Internship> key) {
+        int size = internships.size();
+        long[] packed = new long[size];
+        for (int i = 0; i < size; i++) {
+            packed[i] = ((long) key.applyAsInt(internships.get(i)) << 32) | i;
+        }
+        Arrays.sort(packed);
+
+        Internship[] original = internships.toArray(new Internship[0]);
+        for (int i = 0; i < size; i++) {
+            internships.set(i, original[(int) packed[i]]);
+        }
+    }
+
+
+
+    /**
+     * orders titles like compareToIgnoreCase, each title is case folded once instead of on every comparison
+     */
+    private static void sortByTitle(List<Internship> internships) {
+        TitleKey[] keys = new TitleKey[internships.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new TitleKey(internships.get(i), i);
+        }
+        Arrays.sort(keys);
+
+        for (int i = 0; i < keys.length; i++) {
+            internships.set(i, keys[i].internship);
+        }
+    }
+
+
+
+    private static final class TitleKey implements Comparable<TitleKey> {
+        private final String key;
+        private final Internship internship;
+        private final int position;
+
+        private TitleKey(Internship internship, int position) {
+            this.internship = internship;
+            this.position = position;
+            this.key = foldCase(internship.getTitle());
+        }
+
+        private static String foldCase(String title) {
+            if (title == null) {
+                return "";
+            }
+            char[] chars = title.toCharArray();
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+            }
+            return new String(chars);
+        }
+
+        @Override
+        public int compareTo(TitleKey other) {
+            int order = key.compareTo(other.key);
+            return order != 0 ? order : Integer.compare(position, other.position);
+        }
+    }
+
+
+
+    /**
+     * max-heap over packed sort keys that keeps only the smallest bound entries
+     */
+    private static final class BoundedLongHeap {
+        private final int bound;
+        private long[] heap = new long[16];
+        private int size = 0;
+
+        private BoundedLongHeap(int bound) {
+            this.bound = bound;
+        }
+
+        private void offer(long value) {
+            if (size < bound) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, (int) Math.min((long) size * 2, bound));
+                }
+                int i = size++;
+                while (i > 0 && heap[(i - 1) / 2] < value) {
+                    heap[i] = heap[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                heap[i] = value;
+            } else if (bound > 0 && value < heap[0]) {
+                siftDown(value);
+            }
+        }
+
+        private void siftDown(long value) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heap[child + 1] > heap[child]) {
+                    child++;
+                }
+                if (heap[child] <= value) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = value;
+        }
+
+        private long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(heap, size);
+            Arrays.sort(sorted);
+            return sorted;
         }
-        
-        return filtered;
     }
 
 
@@ -0,0 +1,214 @@
+package util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * class maps the app's generated ids to numbers and back.
+ *
+ * an id is a fixed prefix, a zero padded number of at least the given width and for student
+ * ids a trailing check letter, e.g. APP00001, INT00042 or U2310001A. the check letter is folded
+ * into the number so every id is one long, ids that would not render back to the same string
+ * encode as INVALID and are left to the caller to keep as strings
+ *
+ * key() tags the number with the id type in the top byte, so keys of different id types never
+ * collide and renderKey() can turn any key back into its string. an id that is not canonical,
+ * such as a staff login or an unpadded APP7, gets the next number under tag 0 the first time it
+ * is keyed and keeps it for the rest of the run, so every id has a key. findKey() never assigns
+ * one, lookups for an unseen id simply miss. strings are only needed where ids are shown or
+ * written, registries store, index and compare the keys
+ *
+ */
+
+
+
+public final class IdCodec {
+    public static final long INVALID = -1;
+
+    public static final IdCodec APPLICATION = new IdCodec(1, "APP", 5, false);
+    public static final IdCodec INTERNSHIP = new IdCodec(2, "INT", 5, false);
+    public static final IdCodec WITHDRAWAL = new IdCodec(3, "WR", 5, false);
+    public static final IdCodec STUDENT = new IdCodec(4, "U", 7, true);
+
+    private static final IdCodec[] BY_TAG = {null, APPLICATION, INTERNSHIP, WITHDRAWAL, STUDENT};
+    private static final int MAX_DIGITS = 15;
+    private static final int TAG_SHIFT = 56;
+    private static final long NUMBER_MASK = (1L << TAG_SHIFT) - 1;
+
+    private static final Map<String, Long> otherKeys = new ConcurrentHashMap<>();
+    private static final Map<Long, String> otherIds = new ConcurrentHashMap<>();
+    private static final AtomicLong nextOtherKey = new AtomicLong();
+
+    private final int tag;
+    private final String prefix;
+    private final int width;
+    private final boolean checkLetter;
+
+    private IdCodec(int tag, String prefix, int width, boolean checkLetter) {
+        this.tag = tag;
+        this.prefix = prefix;
+        this.width = width;
+        this.checkLetter = checkLetter;
+    }
+
+
+
+    public long encode(String id) {
+        if (id == null || !id.startsWith(prefix)) {
+            return INVALID;
+        }
+        int end = checkLetter ? id.length() - 1 : id.length();
+        int digits = end - prefix.length();
+        if (digits < width || digits > MAX_DIGITS) {
+            return INVALID;
+        }
+        if (digits > width && id.charAt(prefix.length()) == '0') {
+            return INVALID;
+        }
+
+        long value = 0;
+        for (int i = prefix.length(); i < end; i++) {
+            int digit = id.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            value = value * 10 + digit;
+        }
+
+        if (checkLetter) {
+            char letter = id.charAt(end);
+            if (letter < 'A' || letter > 'Z') {
+                return INVALID;
+            }
+            value = value * 26 + (letter - 'A');
+        }
+        return value;
+    }
+
+
+
+    /**
+     * the id's key, assigning a tag 0 key the first time a non-canonical id is seen
+     */
+    public long key(String id) {
+        if (id == null) {
+            throw new IllegalArgumentException("Cannot key a null id");
+        }
+        long value = encode(id);
+        if (value != INVALID) {
+            return keyOf(value);
+        }
+        return otherKeys.computeIfAbsent(id, k -> {
+            long key = nextOtherKey.getAndIncrement();
+            otherIds.put(key, k);
+            return key;
+        });
+    }
+
+    /**
+     * the id's key without assigning one, INVALID for a non-canonical id that was never keyed
+     */
+    public long findKey(String id) {
+        long value = encode(id);
+        if (value != INVALID) {
+            return keyOf(value);
+        }
+        if (id == null) {
+            return INVALID;
+        }
+        Long key = otherKeys.get(id);
+        return key == null ? INVALID : key;
+    }
+
+    public long keyOf(long value) {
+        return ((long) tag << TAG_SHIFT) | value;
+    }
+
+    /**
+     * the encoded number of a key of this id type, INVALID for any other key
+     */
+    public long valueOf(long key) {
+        return key >= 0 && (key >>> TAG_SHIFT) == tag ? key & NUMBER_MASK : INVALID;
+    }
+
+
+
+    public static String renderKey(long key) {
+        int tag = (int) (key >>> TAG_SHIFT);
+        if (key >= 0 && tag == 0) {
+            String id = otherIds.get(key);
+            if (id != null) {
+                return id;
+            }
+        } else if (key >= 0 && tag < BY_TAG.length && BY_TAG[tag] != null) {
+            return BY_TAG[tag].render(key & NUMBER_MASK);
+        }
+        throw new IllegalArgumentException("Not an id key: " + key);
+    }
+
+
+
+    /**
+     * the number after the prefix of any id made of the prefix and digits, padded or not,
+     * INVALID otherwise. used to find the next free number, where ids need not be canonical
+     */
+    public long number(String id) {
+        if (id == null || !id.startsWith(prefix) || checkLetter) {
+            return INVALID;
+        }
+        int digits = id.length() - prefix.length();
+        if (digits == 0 || digits > MAX_DIGITS) {
+            return INVALID;
+        }
+        long value = 0;
+        for (int i = prefix.length(); i < id.length(); i++) {
+            int digit = id.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * number() of the id behind a key, without rendering canonical keys of this type
+     */
+    public long number(long key) {
+        long value = valueOf(key);
+        return value != INVALID && !checkLetter ? value : number(renderKey(key));
+    }
+
+
+
+    public String render(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Cannot render id " + value);
+        }
+        long number = checkLetter ? value / 26 : value;
+        int digits = 1;
+        for (long rest = number; rest >= 10; rest /= 10) {
+            digits++;
+        }
+        int padded = Math.max(digits, width);
+
+        char[] chars = new char[prefix.length() + padded + (checkLetter ? 1 : 0)];
+        prefix.getChars(0, prefix.length(), chars, 0);
+        for (int i = prefix.length() + padded - 1; i >= prefix.length(); i--) {
+            chars[i] = (char) ('0' + number % 10);
+            number /= 10;
+        }
+        if (checkLetter) {
+            chars[chars.length - 1] = (char) ('A' + value % 26);
+        }
+        return new String(chars);
+    }
+
+
+
+    public String getPrefix() {
+        return prefix;
+    }
+}
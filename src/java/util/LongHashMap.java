@@ -0,0 +1,262 @@
+package util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.NoSuchElementException;
+
+
+/**
+ * class is an open-addressing hash map from primitive long keys to values.
+ *
+ * keys and values sit in two parallel arrays probed linearly, there are no entry objects and
+ * no boxing. a slot is free when its value is null, so values must not be null. removal leaves
+ * a marker in the slot instead of moving entries, so a key never changes slots within a table
+ * and a freed slot is only taken again by the same key. markers are dropped when the table is
+ * rebuilt
+ *
+ * writers must be serialized by the caller, readers need no lock: a slot's key is written before
+ * its value is stored with a release store, get and cursors load values with an acquire load, and
+ * a rebuilt table is published through one volatile field while the old one is left as it was.
+ * a cursor walks the table it started on without copying it, it sees every entry that was there
+ * the whole time and may or may not see entries put or removed since
+ *
+ */
+
+
+
+public final class LongHashMap<V> {
+    private static final int MIN_CAPACITY = 16;
+    private static final Object REMOVED = new Object();
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private volatile Table table;
+    private volatile int size = 0;
+    private int removedSlots = 0;
+
+    public LongHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public LongHashMap(int expectedSize) {
+        table = new Table(tableSizeFor(expectedSize));
+    }
+
+
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        Table table = this.table;
+        int mask = table.keys.length - 1;
+        int slot = hash(key) & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            Object value = SLOT.getAcquire(table.values, slot);
+            if (value == null) {
+                return null;
+            }
+            if (table.keys[slot] == key) {
+                return value == REMOVED ? null : (V) value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+
+
+    /**
+     * returns the previous value for the key or null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("LongHashMap does not hold null values");
+        }
+        Table table = this.table;
+        int mask = table.keys.length - 1;
+        int slot = hash(key) & mask;
+        Object current;
+        while ((current = table.values[slot]) != null) {
+            if (table.keys[slot] == key) {
+                SLOT.setRelease(table.values, slot, value);
+                if (current == REMOVED) {
+                    removedSlots--;
+                    size++;
+                    return null;
+                }
+                return (V) current;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        table.keys[slot] = key;
+        SLOT.setRelease(table.values, slot, value);
+        size++;
+        if ((size + removedSlots) * 3 > table.keys.length * 2) {
+            rebuild(size * 3 > table.keys.length ? table.keys.length * 2 : table.keys.length);
+        }
+        return null;
+    }
+
+
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        Table table = this.table;
+        int mask = table.keys.length - 1;
+        int slot = hash(key) & mask;
+        Object current;
+        while ((current = table.values[slot]) != null) {
+            if (table.keys[slot] == key) {
+                if (current == REMOVED) {
+                    return null;
+                }
+                SLOT.setRelease(table.values, slot, REMOVED);
+                removedSlots++;
+                size--;
+                return (V) current;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+
+
+    public void clear() {
+        table = new Table(MIN_CAPACITY);
+        removedSlots = 0;
+        size = 0;
+    }
+
+
+
+    /**
+     * a separate map with the same entries, the table is copied as it is
+     */
+    public LongHashMap<V> copy() {
+        Table table = this.table;
+        LongHashMap<V> copy = new LongHashMap<>();
+        Table copied = new Table(table.keys.length);
+        System.arraycopy(table.keys, 0, copied.keys, 0, table.keys.length);
+        System.arraycopy(table.values, 0, copied.values, 0, table.values.length);
+        copy.table = copied;
+        copy.size = size;
+        copy.removedSlots = removedSlots;
+        return copy;
+    }
+
+
+
+    public Cursor<V> cursor() {
+        return new Cursor<>(table);
+    }
+
+
+
+
+
+    private void rebuild(int capacity) {
+        Table old = table;
+        Table rebuilt = new Table(capacity);
+        int mask = capacity - 1;
+
+        for (int i = 0; i < old.values.length; i++) {
+            Object value = old.values[i];
+            if (value != null && value != REMOVED) {
+                int slot = hash(old.keys[i]) & mask;
+                while (rebuilt.values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                rebuilt.keys[slot] = old.keys[i];
+                rebuilt.values[slot] = value;
+            }
+        }
+        removedSlots = 0;
+        table = rebuilt;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        long needed = Math.max(MIN_CAPACITY, (long) expectedSize * 3 / 2 + 1);
+        int capacity = MIN_CAPACITY;
+        while (capacity < needed && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+
+
+    private static final class Table {
+        final long[] keys;
+        final Object[] values;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new Object[capacity];
+        }
+    }
+
+
+
+    /**
+     * walks the entries of one table in slot order, next() moves to the following entry
+     */
+    public static final class Cursor<V> {
+        private final Table table;
+        private int slot = -1;
+        private Object value;
+
+        private Cursor(Table table) {
+            this.table = table;
+        }
+
+        public boolean next() {
+            Object[] values = table.values;
+            for (int i = slot + 1; i < values.length; i++) {
+                Object candidate = SLOT.getAcquire(values, i);
+                if (candidate != null && candidate != REMOVED) {
+                    slot = i;
+                    value = candidate;
+                    return true;
+                }
+            }
+            slot = values.length;
+            value = null;
+            return false;
+        }
+
+        public long key() {
+            if (value == null) {
+                throw new NoSuchElementException();
+            }
+            return table.keys[slot];
+        }
+
+        @SuppressWarnings("unchecked")
+        public V value() {
+            if (value == null) {
+                throw new NoSuchElementException();
+            }
+            return (V) value;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package util;
+
+import java.util.Arrays;
+
+
+/**
+ * class is a sorted set of primitive longs kept in one growing array.
+ *
+ * add and remove binary search and shift the tail, which costs little for the small per-student
+ * and per-internship sets and is a plain append when keys arrive in ascending order, the way ids
+ * are generated and indexes are rebuilt. iteration is in ascending order through size and get
+ *
+ * not thread-safe
+ *
+ */
+
+
+
+public final class LongSet {
+    private long[] keys = new long[4];
+    private int size = 0;
+
+
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return keys[index];
+    }
+
+    public boolean contains(long key) {
+        return Arrays.binarySearch(keys, 0, size, key) >= 0;
+    }
+
+
+
+    public boolean add(long key) {
+        int index = size;
+        if (size > 0 && keys[size - 1] >= key) {
+            index = Arrays.binarySearch(keys, 0, size, key);
+            if (index >= 0) {
+                return false;
+            }
+            index = -index - 1;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        keys[index] = key;
+        size++;
+        return true;
+    }
+
+    public boolean remove(long key) {
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        size--;
+        return true;
+    }
+}
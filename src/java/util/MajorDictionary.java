@@ -0,0 +1,120 @@
+package util;
+
+import entity.Internship;
+import entity.Student;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * class keeps one shared dictionary of majors.
+ *
+ * every distinct spelling is kept once and majors that are equal ignoring case share a small
+ * int code, so major checks compare codes instead of calling equalsIgnoreCase per internship.
+ * students and internships cache their code, it is looked up again after the major changes
+ *
+ * codes are only meaningful within one run, they are never written to disk
+ *
+ */
+
+
+
+public final class MajorDictionary {
+    public static final int NO_MAJOR = 0;
+    public static final int UNKNOWN = -1;
+
+    private static final Map<String, String> spellings = new ConcurrentHashMap<>();
+    private static final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextCode = new AtomicInteger(NO_MAJOR + 1);
+
+    private MajorDictionary() {
+    }
+
+
+
+    /**
+     * returns the shared instance of this spelling and registers its code
+     */
+    public static String intern(String major) {
+        if (major == null) {
+            return null;
+        }
+        String interned = spellings.computeIfAbsent(major, k -> k);
+        code(interned);
+        return interned;
+    }
+
+
+
+    /**
+     * returns the code for the major, assigning a new one the first time it is seen.
+     * null has the code NO_MAJOR, which never matches anything
+     */
+    public static int code(String major) {
+        if (major == null) {
+            return NO_MAJOR;
+        }
+        return codes.computeIfAbsent(normalize(major), k -> nextCode.getAndIncrement());
+    }
+
+
+
+    /**
+     * returns the code for the major without registering it, UNKNOWN when no student or
+     * internship has used it, so a query for an unseen major matches nothing. only safe for
+     * majors compared against entities that already hold their code, such as indexed ones,
+     * filters over arbitrary entities use code()
+     */
+    public static int lookup(String major) {
+        if (major == null) {
+            return NO_MAJOR;
+        }
+        Integer code = codes.get(normalize(major));
+        return code == null ? UNKNOWN : code;
+    }
+
+
+
+    public static int codeOf(Student student) {
+        int code = student.getMajorCode();
+        if (code == UNKNOWN) {
+            code = code(student.getMajor());
+            student.setMajorCode(code);
+        }
+        return code;
+    }
+
+
+
+    public static int codeOf(Internship internship) {
+        int code = internship.getPreferredMajorCode();
+        if (code == UNKNOWN) {
+            code = code(internship.getPreferredMajor());
+            internship.setPreferredMajorCode(code);
+        }
+        return code;
+    }
+
+
+
+    public static boolean sameMajor(Student student, Internship internship) {
+        int code = codeOf(student);
+        return code != NO_MAJOR && code == codeOf(internship);
+    }
+
+
+
+    /**
+     * folds each char the way String.equalsIgnoreCase compares them, two majors fold to the
+     * same key exactly when equalsIgnoreCase holds for them
+     */
+    public static String normalize(String major) {
+        char[] folded = new char[major.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = Character.toLowerCase(Character.toUpperCase(major.charAt(i)));
+        }
+        return new String(folded);
+    }
+}
@@ -0,0 +1,72 @@
+package util;
+
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * class holds one page of a larger result.
+ * 
+ * keeps the items on the page, where the page starts and how many results there are in total
+ * 
+ */
+
+
+
+public final class Page<T> {
+    private final List<T> items;
+    private final int offset;
+    private final int total;
+
+    public Page(List<T> items, int offset, int total) {
+        this.items = Collections.unmodifiableList(items);
+        this.offset = offset;
+        this.total = total;
+    }
+
+
+
+    /**
+     * slices a page out of a list that is already fully materialised
+     */
+    public static <T> Page<T> of(List<T> all, int offset, int limit) {
+        checkRange(offset, limit);
+        int from = Math.min(offset, all.size());
+        int to = (int) Math.min((long) offset + limit, all.size());
+        return new Page<>(all.subList(from, to), offset, all.size());
+    }
+
+
+
+    public static void checkRange(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
+    }
+
+
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    public boolean hasNext() {
+        return offset + items.size() < total;
+    }
+
+    public int getNextOffset() {
+        return offset + items.size();
+    }
+}
@@ -7,7 +7,8 @@ package util;
  *  max number of applications per student, 
  *  max number of internships per representative,
  *  max number of slots per internship, 
- *  max year of study for the basic level.
+ *  max year of study for the basic level,
+ *  number of results shown per page when browsing.
  * 
  * 
  * 
@@ -20,6 +21,7 @@ public final class SystemConstants {
     public static final int MAX_INTERNSHIPS_PER_REP = 5;
     public static final int MAX_SLOTS_PER_INTERNSHIP = 10;
     public static final int BASIC_LEVEL_MAX_YEAR = 2;
+    public static final int RESULTS_PAGE_SIZE = 10;
 
     private SystemConstants() {
     }
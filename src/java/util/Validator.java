@@ -21,7 +21,7 @@ import entity.enums.InternshipLevel;
     }
 
     public static boolean isEligibleForInternship(Student student, Internship internship) {
-        if (!student.getMajor().equalsIgnoreCase(internship.getPreferredMajor())) {
+        if (!MajorDictionary.sameMajor(student, internship)) {
             return false;
         }
         int year = student.getYearOfStudy();
@@ -5,6 +5,7 @@ import entity.Internship;
 import entity.Student;
 import entity.enums.ApplicationStatus;
 
+import util.MajorDictionary;
 import util.SystemConstants;
 
 import java.time.LocalDate;
@@ -87,7 +88,7 @@ public class ApplicationValidator {
             return ValidationResult.failure("Internship level not permitted for current year of study");
         }
 
-        if (!student.getMajor().equalsIgnoreCase(internship.getPreferredMajor())) {
+        if (!MajorDictionary.sameMajor(student, internship)) {
             return ValidationResult.failure("Preferred major does not match");
         }
 